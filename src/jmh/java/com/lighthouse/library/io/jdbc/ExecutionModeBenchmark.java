@@ -0,0 +1,124 @@
+package com.lighthouse.library.io.jdbc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+/**
+ * Serves a wave of concurrent clients the way the two execution modes do: from a pool of {@value
+ * #TOMCAT_THREADS} platform threads, Tomcat's default, or from a virtual thread per request. Every
+ * request blocks outside the database and then holds one of {@value #CONNECTIONS} connections of
+ * the {@link ConnectionLimiter} for a query, both simulated by sleeping. One operation is the
+ * whole wave, so the sample time percentiles are the latency of the slowest client of a wave and
+ * the throughput in requests is the operation throughput times the clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    static final int TOMCAT_THREADS = 200;
+    static final int CONNECTIONS = 20;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    @Param({"1000", "4000"})
+    private int clients;
+
+    /** Time a request blocks outside the database, e.g. on another service. */
+    @Param({"20"})
+    private long blockingMillis;
+
+    @Param({"1"})
+    private long queryMillis;
+
+    private ExecutorService executor;
+    private ConnectionLimiter limiter;
+
+    @Setup
+    public void setUp() {
+        executor =
+                mode.equals("virtual")
+                        ? Executors.newVirtualThreadPerTaskExecutor()
+                        : Executors.newFixedThreadPool(TOMCAT_THREADS);
+        limiter = new ConnectionLimiter(stubDataSource(), CONNECTIONS, Duration.ofSeconds(30));
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /** Returns the number of requests answered with a 503. */
+    @Benchmark
+    public int wave() throws InterruptedException, ExecutionException {
+        List<Callable<Boolean>> requests = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            requests.add(this::request);
+        }
+
+        int rejected = 0;
+        for (Future<Boolean> response : executor.invokeAll(requests)) {
+            if (!response.get()) {
+                rejected++;
+            }
+        }
+
+        return rejected;
+    }
+
+    private boolean request() throws SQLException, InterruptedException {
+        Thread.sleep(blockingMillis);
+
+        try (Connection connection = limiter.getConnection()) {
+            Thread.sleep(queryMillis);
+            return connection != null;
+        } catch (ConnectionWaitTimeoutException e) {
+            return false;
+        }
+    }
+
+    private static DataSource stubDataSource() {
+        Connection connection =
+                (Connection)
+                        Proxy.newProxyInstance(
+                                ExecutionModeBenchmark.class.getClassLoader(),
+                                new Class<?>[] {Connection.class},
+                                (proxy, method, args) -> null);
+
+        return (DataSource)
+                Proxy.newProxyInstance(
+                        ExecutionModeBenchmark.class.getClassLoader(),
+                        new Class<?>[] {DataSource.class},
+                        (proxy, method, args) ->
+                                method.getName().equals("getConnection") ? connection : null);
+    }
+}
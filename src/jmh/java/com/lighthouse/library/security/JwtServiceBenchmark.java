@@ -0,0 +1,97 @@
+package com.lighthouse.library.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request token verification of the filter before and after the fast path, and
+ * times the public operations of the service on their own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET_KEY =
+            "3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b";
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        TokenEpochRegistry tokenEpochRegistry = new TokenEpochRegistry(null, 10000, Duration.ofHours(1));
+        tokenEpochRegistry.update("user", 0);
+
+        jwtService = new JwtService(SECRET_KEY, 3600000, 10000, tokenEpochRegistry);
+        userDetails = new User("user", "pass", List.of(new SimpleGrantedAuthority("USER")));
+        token = jwtService.generateToken(userDetails);
+    }
+
+    /** extractUsername + isTokenValid as the filter did it: three parses, three key builds. */
+    @Benchmark
+    public boolean legacyTriplePath() {
+        String username = legacyClaims(token).getSubject();
+        return username.equals(userDetails.getUsername())
+                && legacyClaims(token).getSubject().equals(userDetails.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    /** One parse with the startup-built parser, cache bypassed. */
+    @Benchmark
+    public boolean singleParse() {
+        return jwtService.isTokenValid(jwtService.parseClaims(token), userDetails);
+    }
+
+    /** One parse served from the verified token cache. */
+    @Benchmark
+    public boolean cachedVerifiedClaims() {
+        return jwtService.isTokenValid(jwtService.extractVerifiedClaims(token), userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, userDetails);
+    }
+
+    private static Claims legacyClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+}
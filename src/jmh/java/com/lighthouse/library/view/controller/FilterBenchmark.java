@@ -0,0 +1,56 @@
+package com.lighthouse.library.view.controller;
+
+import com.lighthouse.library.io.entity.BookEntity;
+import com.lighthouse.library.io.entity.LibraryEntity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the Specification of a list request from its query parameters, with and without
+ * parsing the sort, which is the part of a listing that runs before any query is made.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBenchmark {
+
+    private Map<String, String> noFilters = Map.of();
+    private Map<String, String> bookFilters = Map.of("title", "war", "deleted", "false");
+    private Map<String, String> libraryFilters = Map.of("name", "central", "deleted", "true");
+
+    @Benchmark
+    public Specification<BookEntity> emptyBookFilter() {
+        return BookController.filter(noFilters);
+    }
+
+    @Benchmark
+    public Specification<BookEntity> bookFilter() {
+        return BookController.filter(bookFilters);
+    }
+
+    @Benchmark
+    public Specification<LibraryEntity> libraryFilter() {
+        return LibraryController.filter(libraryFilters);
+    }
+
+    @Benchmark
+    public Sort bookSort() {
+        return BookController.SORTABLE.parse("-title,-id", Sort.Direction.DESC);
+    }
+}
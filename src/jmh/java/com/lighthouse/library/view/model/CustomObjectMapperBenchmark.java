@@ -0,0 +1,96 @@
+package com.lighthouse.library.view.model;
+
+import com.lighthouse.library.io.entity.AuthorEntity;
+import com.lighthouse.library.io.entity.BookEntity;
+import com.lighthouse.library.io.entity.GenreEntity;
+import com.lighthouse.library.io.entity.LenderEntity;
+import com.lighthouse.library.io.entity.LibraryEntity;
+import com.lighthouse.library.io.repository.BookRow;
+import com.lighthouse.library.io.repository.ElementRow;
+import com.lighthouse.library.view.model.response.Author;
+import com.lighthouse.library.view.model.response.Book;
+import com.lighthouse.library.view.model.response.Library;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps entity graphs with {@code graphSize} elements in each collection to the response models, and
+ * the same book from a listing row for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomObjectMapperBenchmark {
+
+    @Param({"0", "10", "100"})
+    private int graphSize;
+
+    private BookEntity book;
+    private AuthorEntity author;
+    private LibraryEntity library;
+    private BookRow bookRow;
+    private List<ElementRow> genreRows;
+
+    @Setup
+    public void setUp() {
+        List<GenreEntity> genres = new ArrayList<>();
+        List<BookEntity> books = new ArrayList<>();
+        List<LenderEntity> lenders = new ArrayList<>();
+        genreRows = new ArrayList<>();
+
+        for (int i = 0; i < graphSize; i++) {
+            genres.add(new GenreEntity("Genre %04d".formatted(i)));
+            books.add(new BookEntity("Book %04d".formatted(i), new ArrayList<>()));
+            lenders.add(new LenderEntity("Lender %04d".formatted(i), new ArrayList<>()));
+            genreRows.add(new ElementRow(1L, "Genre %04d".formatted(i), false));
+        }
+
+        book = new BookEntity("The Benchmarked Book", genres);
+        author = new AuthorEntity("Some Author", books);
+        library = new LibraryEntity("The Benchmark Library", lenders, books);
+        bookRow = new BookRow(1L, "The Benchmarked Book", false);
+    }
+
+    @Benchmark
+    public Book mapBook() {
+        return CustomObjectMapper.map(book);
+    }
+
+    @Benchmark
+    public Book mapBookRow() {
+        return CustomObjectMapper.mapBook(bookRow, genreRows);
+    }
+
+    @Benchmark
+    public Author mapAuthor() {
+        return CustomObjectMapper.map(author);
+    }
+
+    @Benchmark
+    public Library mapLibrary() {
+        return CustomObjectMapper.map(library);
+    }
+
+    /** Request model back to an entity, as the create endpoints do. */
+    @Benchmark
+    public BookEntity mapBookRequest() {
+        return CustomObjectMapper.map(CustomObjectMapper.map(book));
+    }
+}
@@ -0,0 +1,59 @@
+package com.lighthouse.library.view.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The validate* methods on valid input, and on input they reject, which pays for building the
+ * exception and its message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private String name = "Some Author";
+    private String title = "The Benchmarked Book";
+    private String password = "$2a$10$0123456789012345678901234567890123456789012345678901";
+    private String blank = "   ";
+
+    @Benchmark
+    public String validName() {
+        CustomObjectMapper.validateName(name);
+        return name;
+    }
+
+    @Benchmark
+    public String validBookTitle() {
+        CustomObjectMapper.validateBookTitle(title);
+        return title;
+    }
+
+    @Benchmark
+    public String validPassword() {
+        CustomObjectMapper.validatePassword(password);
+        return password;
+    }
+
+    @Benchmark
+    public String rejectedName() {
+        try {
+            CustomObjectMapper.validateName(blank);
+            return blank;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+}
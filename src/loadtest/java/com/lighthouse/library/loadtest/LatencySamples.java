@@ -0,0 +1,71 @@
+package com.lighthouse.library.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** The latencies and statuses of the requests to one endpoint, recorded by one client. */
+class LatencySamples {
+
+    private long[] micros = new long[1024];
+    private int size;
+    private long errors;
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+
+    void record(long latencyMicros, int status) {
+        if (size == micros.length) {
+            micros = Arrays.copyOf(micros, size * 2);
+        }
+
+        micros[size++] = latencyMicros;
+        statuses.merge(status, 1L, Long::sum);
+
+        if (status < 200 || status >= 300) {
+            errors++;
+        }
+    }
+
+    void addAll(LatencySamples other) {
+        for (int i = 0; i < other.size; i++) {
+            if (size == micros.length) {
+                micros = Arrays.copyOf(micros, Math.max(16, size * 2));
+            }
+
+            micros[size++] = other.micros[i];
+        }
+
+        errors += other.errors;
+        other.statuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+    }
+
+    int count() {
+        return size;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    Map<Integer, Long> statuses() {
+        return statuses;
+    }
+
+    /** Nearest-rank percentiles in milliseconds, for quantiles between 0 and 1. */
+    double[] percentilesMillis(double... quantiles) {
+        long[] sorted = Arrays.copyOf(micros, size);
+        Arrays.sort(sorted);
+
+        double[] millis = new double[quantiles.length];
+        for (int i = 0; i < quantiles.length; i++) {
+            if (size == 0) {
+                millis[i] = Double.NaN;
+                continue;
+            }
+
+            int rank = (int) Math.ceil(quantiles[i] * size);
+            millis[i] = sorted[Math.max(0, Math.min(size, rank) - 1)] / 1000.0;
+        }
+
+        return millis;
+    }
+}
@@ -0,0 +1,362 @@
+package com.lighthouse.library.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives a mixed read and write load against a running instance and writes the throughput and
+ * latency percentiles of every endpoint as JSON. Each client is a virtual thread that logs in,
+ * then picks its next request from the weighted mix until the run is over. Requests made during
+ * the warmup are not recorded.
+ *
+ * <p>Settings are system properties: {@code loadtest.base-url}, {@code loadtest.username}, {@code
+ * loadtest.password}, {@code loadtest.clients}, {@code loadtest.warmup} and {@code
+ * loadtest.duration} in seconds, {@code loadtest.seed-books}, {@code loadtest.mix} as {@code
+ * login:5,list:35,get:35,create:10,patch:10,delete:5} and {@code loadtest.report}.
+ */
+public class LoadTest {
+
+    static final String[] OPERATIONS = {"login", "list", "get", "create", "patch", "delete"};
+    static final double[] QUANTILES = {0.50, 0.95, 0.99, 0.999};
+    static final Map<String, Object> PATCH =
+            Map.of("genres", List.of(Map.of("name", "Load Patched")));
+
+    private final HttpClient http =
+            HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+    private final String username = System.getProperty("loadtest.username", "admin");
+    private final String password = System.getProperty("loadtest.password", "pass");
+    private final int clients = Integer.getInteger("loadtest.clients", 64);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup", 10);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration", 60);
+    private final int seedBooks = Integer.getInteger("loadtest.seed-books", 200);
+    private final Map<String, Integer> mix =
+            parseMix(
+                    System.getProperty(
+                            "loadtest.mix", "login:5,list:35,get:35,create:10,patch:10,delete:5"));
+    private final Path report =
+            Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+
+    /** Unique per run, so runs against the same database don't collide on titles. */
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final List<String> seededTitles = new ArrayList<>();
+
+    private volatile long measureFrom;
+    private volatile long measureUntil;
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest().run();
+    }
+
+    void run() throws Exception {
+        String token = login();
+        if (token == null) {
+            throw new IllegalStateException("Couldn't log in as " + username);
+        }
+
+        seed(token);
+
+        long start = System.nanoTime();
+        measureFrom = start + Duration.ofSeconds(warmupSeconds).toNanos();
+        measureUntil = measureFrom + Duration.ofSeconds(durationSeconds).toNanos();
+
+        List<Future<Map<String, LatencySamples>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                int client = i;
+                results.add(executor.submit(() -> client(client)));
+            }
+        }
+
+        Map<String, LatencySamples> samples = new LinkedHashMap<>();
+        for (String operation : OPERATIONS) {
+            samples.put(operation, new LatencySamples());
+        }
+        for (Future<Map<String, LatencySamples>> result : results) {
+            result.get().forEach((operation, client) -> samples.get(operation).addAll(client));
+        }
+
+        write(samples);
+    }
+
+    private Map<String, LatencySamples> client(int client) throws InterruptedException {
+        Map<String, LatencySamples> samples = new LinkedHashMap<>();
+        for (String operation : OPERATIONS) {
+            samples.put(operation, new LatencySamples());
+        }
+
+        Deque<String> ownTitles = new ArrayDeque<>();
+        String token = null;
+        long sequence = 0;
+
+        while (System.nanoTime() < measureUntil) {
+            String operation = token == null ? "login" : next();
+
+            if ((operation.equals("patch") || operation.equals("delete")) && ownTitles.isEmpty()) {
+                operation = "create";
+            }
+
+            HttpRequest request;
+            String title = null;
+
+            switch (operation) {
+                case "login" -> request = loginRequest();
+                case "list" ->
+                        request =
+                                authorized(token, "/books?size=20&sort=-title")
+                                        .GET()
+                                        .build();
+                case "get" -> {
+                    String seeded =
+                            seededTitles.get(
+                                    ThreadLocalRandom.current().nextInt(seededTitles.size()));
+                    request = authorized(token, "/books/" + encode(seeded)).GET().build();
+                }
+                case "create" -> {
+                    title = "lt-%s-%d-%d".formatted(runId, client, sequence++);
+                    request =
+                            authorized(token, "/books")
+                                    .POST(json(book(title, "Load Genre " + (sequence % 8))))
+                                    .build();
+                }
+                case "patch" ->
+                        request =
+                                authorized(token, "/books/" + encode(ownTitles.peekLast()))
+                                        .method("PATCH", json(PATCH))
+                                        .build();
+                case "delete" -> {
+                    title = ownTitles.pollFirst();
+                    request = authorized(token, "/books/" + encode(title)).DELETE().build();
+                }
+                default -> throw new IllegalStateException(operation);
+            }
+
+            long sent = System.nanoTime();
+            int status;
+            HttpResponse<String> response = null;
+
+            try {
+                response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                status = response.statusCode();
+            } catch (IOException e) {
+                status = 0;
+            }
+
+            long received = System.nanoTime();
+            if (sent >= measureFrom && received <= measureUntil) {
+                samples.get(operation).record((received - sent) / 1000, status);
+            }
+
+            if (operation.equals("create") && status == 200) {
+                ownTitles.addLast(title);
+            }
+
+            if (operation.equals("login")) {
+                token =
+                        status / 100 == 2
+                                ? response.headers().firstValue("Authorization").orElse(null)
+                                : null;
+
+                // A failed login is tried again, whatever the status, but not in a tight loop.
+                if (token == null) {
+                    backOff(response);
+                }
+            } else if (status == 401) {
+                token = null;
+            } else if (status == 0 || status == 429 || status == 503) {
+                backOff(response);
+            }
+        }
+
+        return samples;
+    }
+
+    /** Waits as long as the Retry-After of a shed request asks, so clients don't spin on it. */
+    private static void backOff(HttpResponse<String> response) throws InterruptedException {
+        long seconds = 0;
+        if (response != null) {
+            seconds = Long.parseLong(response.headers().firstValue("Retry-After").orElse("0"));
+        }
+
+        Thread.sleep(Math.max(100, seconds * 1000));
+    }
+
+    private String next() {
+        int total = 0;
+        for (int weight : mix.values()) {
+            total += weight;
+        }
+
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+
+        throw new IllegalStateException("The mix is empty");
+    }
+
+    /** Creates the books the get requests read, in batches. */
+    private void seed(String token) throws IOException, InterruptedException {
+        List<Object> batch = new ArrayList<>();
+
+        for (int i = 0; i < seedBooks; i++) {
+            String title = "lt-%s-seed-%d".formatted(runId, i);
+            seededTitles.add(title);
+            batch.add(book(title, "Load Genre " + (i % 8)));
+
+            if (batch.size() == 1000 || i == seedBooks - 1) {
+                HttpResponse<String> response =
+                        http.send(
+                                authorized(token, "/books/batch").POST(json(batch)).build(),
+                                HttpResponse.BodyHandlers.ofString());
+
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException(
+                            "Seeding failed with %d: %s"
+                                    .formatted(response.statusCode(), response.body()));
+                }
+
+                // The batch succeeds as a whole even when items are rejected.
+                for (JsonNode result : mapper.readTree(response.body())) {
+                    if (!result.path("created").asBoolean()) {
+                        throw new IllegalStateException(
+                                "Seeding failed for %s: %s"
+                                        .formatted(
+                                                batch.get(result.path("index").asInt()),
+                                                result.path("error").asText()));
+                    }
+                }
+
+                batch.clear();
+            }
+        }
+
+        if (seededTitles.isEmpty()) {
+            throw new IllegalStateException("loadtest.seed-books should be 1 or more");
+        }
+    }
+
+    private void write(Map<String, LatencySamples> samples) throws IOException {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long requests = 0;
+
+        for (Map.Entry<String, LatencySamples> entry : samples.entrySet()) {
+            LatencySamples endpoint = entry.getValue();
+            double[] percentiles = endpoint.percentilesMillis(QUANTILES);
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", endpoint.count());
+            stats.put("errors", endpoint.errors());
+            stats.put("throughput", (double) endpoint.count() / durationSeconds);
+            stats.put("p50Ms", percentiles[0]);
+            stats.put("p95Ms", percentiles[1]);
+            stats.put("p99Ms", percentiles[2]);
+            stats.put("p999Ms", percentiles[3]);
+            stats.put("statuses", endpoint.statuses());
+            endpoints.put(entry.getKey(), stats);
+
+            requests += endpoint.count();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("baseUrl", baseUrl);
+        result.put("clients", clients);
+        result.put("warmupSeconds", warmupSeconds);
+        result.put("durationSeconds", durationSeconds);
+        result.put("mix", mix);
+        result.put("requests", requests);
+        result.put("throughput", (double) requests / durationSeconds);
+        result.put("endpoints", endpoints);
+
+        String json = mapper.enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(result);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.writeString(report, json);
+
+        System.out.println(json);
+    }
+
+    private String login() throws IOException, InterruptedException {
+        HttpResponse<String> response =
+                http.send(loginRequest(), HttpResponse.BodyHandlers.ofString());
+
+        return response.headers().firstValue("Authorization").orElse(null);
+    }
+
+    private HttpRequest loginRequest() {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("username", username, "password", password)))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(String token, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, Object> book(String title, String genre) {
+        return Map.of("title", title, "genres", List.of(Map.of("name", genre)));
+    }
+
+    private static String encode(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+
+        for (String part : mix.split(",")) {
+            String[] weight = part.trim().split(":");
+
+            if (weight.length != 2 || !List.of(OPERATIONS).contains(weight[0])) {
+                throw new IllegalArgumentException(
+                        "loadtest.mix should be operation:weight pairs of " + List.of(OPERATIONS));
+            }
+
+            weights.put(weight[0], Integer.parseInt(weight[1]));
+        }
+
+        return weights;
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 import lombok.Getter;
@@ -22,7 +23,8 @@ import java.io.Serializable;
 public class AppUserEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_users_seq")
+    @SequenceGenerator(name = "app_users_seq", sequenceName = "app_users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -40,6 +42,9 @@ public class AppUserEntity implements Serializable {
     @Column(nullable = false)
     private String role = "USER";
 
+    @Column(nullable = false)
+    private Long tokenEpoch = 0L;
+
     public AppUserEntity(@NonNull String username, @NonNull String password) {
         this.username = username;
         this.password = password;
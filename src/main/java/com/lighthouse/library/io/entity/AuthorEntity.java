@@ -11,13 +11,20 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.Setter;
 
 @Entity(name = "Author")
+@NamedEntityGraph(
+        name = "Author.authoredBooks",
+        attributeNodes = @NamedAttributeNode("authoredBooks"))
 @Table(name = "authors")
 @Getter
 @Setter
@@ -25,7 +32,8 @@ import lombok.Setter;
 public class AuthorEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_seq")
+    @SequenceGenerator(name = "authors_seq", sequenceName = "authors_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -35,7 +43,11 @@ public class AuthorEntity {
     @NonNull
     private Boolean deleted = false;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "AuthorToBook")
     private List<BookEntity> authoredBooks = new ArrayList<>();
 
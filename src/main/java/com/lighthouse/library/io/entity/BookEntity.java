@@ -9,17 +9,25 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.Setter;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity(name = "Book")
+@NamedEntityGraph(name = "Book.genres", attributeNodes = @NamedAttributeNode("genres"))
 @Table(name = "books")
 @Getter
 @Setter
@@ -27,7 +35,8 @@ import java.util.List;
 public class BookEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -37,8 +46,13 @@ public class BookEntity {
     @NonNull
     private Boolean deleted = false;
 
-    @ManyToMany( fetch = FetchType.EAGER)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "BookToGenre")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book-genres")
     private List<GenreEntity> genres = new ArrayList<>();
 
     public BookEntity(@NonNull String title, @NonNull List<GenreEntity> genres) {
@@ -1,30 +1,43 @@
 package com.lighthouse.library.io.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.Setter;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import java.io.Serializable;
 
 @Entity(name = "Genre")
 @Table(name = "genres")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "genres")
+@NaturalIdCache(region = "genres-by-name")
 @Getter
 @Setter
 @NoArgsConstructor
 public class GenreEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "genres_seq")
+    @SequenceGenerator(name = "genres_seq", sequenceName = "genres_seq", allocationSize = 50)
     private Long id;
 
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String name;
 
@@ -32,6 +45,10 @@ public class GenreEntity implements Serializable {
     @NonNull
     private Boolean deleted = false;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public GenreEntity(@NonNull String name) {
         this.name = name;
     }
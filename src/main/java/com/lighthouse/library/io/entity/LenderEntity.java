@@ -9,7 +9,11 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -21,13 +25,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity(name = "Lender")
+@NamedEntityGraph(name = "Lender.lendedBooks", attributeNodes = @NamedAttributeNode("lendedBooks"))
 @Table(name = "lenders")
 @Getter
 @Setter
 @NoArgsConstructor
 public class LenderEntity implements Serializable {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lenders_seq")
+    @SequenceGenerator(name = "lenders_seq", sequenceName = "lenders_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -37,7 +43,11 @@ public class LenderEntity implements Serializable {
     @NonNull
     private Boolean deleted = false;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "LenderToBook")
     private List<BookEntity> lendedBooks = new ArrayList<>();
 
@@ -3,6 +3,7 @@ package com.lighthouse.library.io.entity;
 import java.util.ArrayList;
 import java.util.List;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -11,21 +12,32 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.Setter;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 @Entity(name = "Library")
+@NamedEntityGraph(name = "Library.books", attributeNodes = @NamedAttributeNode("books"))
 @Table(name = "libraries")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "libraries")
 @Getter
 @Setter
 @NoArgsConstructor
 public class LibraryEntity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "libraries_seq")
+    @SequenceGenerator(name = "libraries_seq", sequenceName = "libraries_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -35,12 +47,16 @@ public class LibraryEntity {
     @NonNull
     private Boolean deleted = false;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "LibraryToLender")
     private List<LenderEntity> lenders = new ArrayList<>();
 
     
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "LibraryToBook")
     private List<BookEntity> books = new ArrayList<>();
 
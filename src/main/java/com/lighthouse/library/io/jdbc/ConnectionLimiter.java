@@ -0,0 +1,124 @@
+package com.lighthouse.library.io.jdbc;
+
+import lombok.NonNull;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+/**
+ * Lets a fixed number of callers hold a connection of the pool at a time. With a virtual thread per
+ * request there is no thread pool left to bound the requests waiting on the database, so the
+ * waiters queue on a fair semaphore here and give up after the wait budget with a {@link
+ * ConnectionWaitTimeoutException}, instead of piling up in the pool until its own timeout.
+ */
+public class ConnectionLimiter extends DelegatingDataSource implements AutoCloseable {
+
+    private final Semaphore permits;
+    private final long waitNanos;
+
+    public ConnectionLimiter(@NonNull DataSource dataSource, int permits, @NonNull Duration wait) {
+        super(dataSource);
+
+        if (permits < 1) {
+            throw new IllegalArgumentException("The connection limit should be 1 or more");
+        }
+
+        this.permits = new Semaphore(permits, true);
+        this.waitNanos = wait.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+
+        try {
+            return released(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+
+        try {
+            return released(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    /** Closes the pool behind the limiter, which is the bean the context shuts down. */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+                throw new ConnectionWaitTimeoutException(
+                        "No database connection became free within "
+                                + Duration.ofNanos(waitNanos).toMillis()
+                                + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    /** The connection, returning its permit on the first close. */
+    private Connection released(Connection connection) {
+        AtomicBoolean open = new AtomicBoolean(true);
+
+        InvocationHandler handler =
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && open.compareAndSet(true, false)) {
+                        try {
+                            return invoke(connection, method, args);
+                        } finally {
+                            permits.release();
+                        }
+                    }
+
+                    return invoke(connection, method, args);
+                };
+
+        return (Connection)
+                Proxy.newProxyInstance(
+                        ConnectionLimiter.class.getClassLoader(),
+                        new Class<?>[] {Connection.class},
+                        handler);
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args)
+            throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.lighthouse.library.io.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.NonNull;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/** Puts a {@link ConnectionLimiter} in front of the connection pool. */
+@Component
+public class ConnectionLimiterPostProcessor implements BeanPostProcessor {
+
+    private final int permits;
+    private final Duration wait;
+
+    public ConnectionLimiterPostProcessor(
+            @Value("${datasource.connection-limit.permits}") int permits,
+            @NonNull @Value("${datasource.connection-limit.wait}") Duration wait) {
+        this.permits = permits;
+        this.wait = wait;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            return new ConnectionLimiter(dataSource, permits, wait);
+        }
+
+        return bean;
+    }
+}
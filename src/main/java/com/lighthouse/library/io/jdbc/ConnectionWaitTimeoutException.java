@@ -0,0 +1,11 @@
+package com.lighthouse.library.io.jdbc;
+
+import java.sql.SQLTransientConnectionException;
+
+/** No connection permit became free within the wait budget of the {@link ConnectionLimiter}. */
+public class ConnectionWaitTimeoutException extends SQLTransientConnectionException {
+
+    public ConnectionWaitTimeoutException(String reason) {
+        super(reason);
+    }
+}
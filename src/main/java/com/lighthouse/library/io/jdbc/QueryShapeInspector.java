@@ -0,0 +1,17 @@
+package com.lighthouse.library.io.jdbc;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/** Records the shape of every statement Hibernate prepares during a request. */
+public class QueryShapeInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueries queries = RequestQueries.current();
+        if (queries != null) {
+            queries.prepared(sql);
+        }
+
+        return sql;
+    }
+}
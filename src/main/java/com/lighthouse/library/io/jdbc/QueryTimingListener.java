@@ -0,0 +1,39 @@
+package com.lighthouse.library.io.jdbc;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts and times the statements and batches a session executes during a request. Hibernate
+ * creates one listener per session.
+ */
+public class QueryTimingListener implements SessionEventListener {
+
+    private long started;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        executed();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        executed();
+    }
+
+    private void executed() {
+        RequestQueries queries = RequestQueries.current();
+        if (queries != null) {
+            queries.executed(System.nanoTime() - started);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.lighthouse.library.io.jdbc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * The SQL statements the current request has run: how many, how long they took and their shapes,
+ * the SQL with every list of parameters collapsed, so the statements of an N+1 loop add up to one
+ * shape. Fed by {@link QueryShapeInspector} and {@link QueryTimingListener} on the request's
+ * thread, statements run on other threads aren't counted.
+ */
+public final class RequestQueries {
+
+    private static final ThreadLocal<RequestQueries> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Two or more parameters in parentheses. The tail is a character class rather than a repeated
+     * group, which the regex engine would match recursively, one frame per parameter.
+     */
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?\\s*,[\\s,?]*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int statements;
+    private long nanos;
+    private final Map<String, Integer> shapes = new LinkedHashMap<>();
+    private boolean reported;
+
+    private RequestQueries() {}
+
+    public static RequestQueries start() {
+        RequestQueries queries = new RequestQueries();
+        CURRENT.set(queries);
+
+        return queries;
+    }
+
+    /** The queries of the request on this thread, or null outside of a request. */
+    public static RequestQueries current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long millis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /** Shapes by the number of times they were prepared, in the order they were first seen. */
+    public Map<String, Integer> shapes() {
+        return shapes;
+    }
+
+    /** True the first time only, so a request is checked against its budget once. */
+    public boolean markReported() {
+        boolean first = !reported;
+        reported = true;
+
+        return first;
+    }
+
+    void prepared(String sql) {
+        String shape = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?...)");
+
+        shapes.merge(shape, 1, Integer::sum);
+    }
+
+    void executed(long statementNanos) {
+        statements++;
+        nanos += statementNanos;
+    }
+}
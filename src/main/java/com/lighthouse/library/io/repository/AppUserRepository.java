@@ -7,6 +7,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.lighthouse.library.io.entity.AppUserEntity;
@@ -19,4 +21,11 @@ public interface AppUserRepository extends JpaRepository<AppUserEntity, Long>,
 
     Optional<AppUserEntity> findByUsernameAndDeletedFalse(String username);
     boolean existsByUsernameAndDeletedFalse(@NonNull String string);
+
+    @Query("select u.tokenEpoch from AppUser u where u.username = :username and u.deleted = false")
+    Optional<Long> findTokenEpochByUsername(@Param("username") String username);
+
+    /** The highest epoch of any user that had the username, deleted ones included. */
+    @Query("select max(u.tokenEpoch) from AppUser u where u.username = :username")
+    Optional<Long> findMaxTokenEpochByUsername(@Param("username") String username);
 }
@@ -1,9 +1,20 @@
 package com.lighthouse.library.io.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.lighthouse.library.io.entity.AuthorEntity;
@@ -14,6 +25,61 @@ public interface AuthorRepository extends JpaRepository<AuthorEntity, Long>, Jpa
 
     Optional<AuthorEntity> findByNameAndDeletedFalse(String name);
 
+    List<AuthorEntity> findByNameInAndDeletedFalse(Collection<String> names);
+
+    @EntityGraph("Author.authoredBooks")
+    Optional<AuthorEntity> findWithBooksByNameAndDeletedFalse(String name);
+
     boolean existsByNameAndDeletedFalse(String name);
+
+    @Query(
+            "select new com.lighthouse.library.io.repository.VersionStamp(a.id, a.version,"
+                    + " (select coalesce(sum(b.version), 0) from Author o join o.authoredBooks b"
+                    + " where o = a))"
+                    + " from Author a where a.name = :name and a.deleted = false")
+    Optional<VersionStamp> findVersionByName(@Param("name") String name);
+
+    @Query("select a.name from Author a where a.name in :names and a.deleted = false")
+    Set<String> findLiveNames(@Param("names") Collection<String> names);
+
     boolean existsByAuthoredBooks(BookEntity book);
+
+    /**
+     * Creates the authors with the given names that have no live author yet. Names taken
+     * concurrently are skipped instead of failing on the unique index, so the names should be
+     * sorted for concurrent callers to lock them in the same order.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "authors"))
+    @Query(
+            value =
+                    "insert into authors (id, name, deleted)"
+                            + " select nextval('authors_seq'), new_authors.name, false"
+                            + " from unnest(cast(:names as varchar[])) as new_authors(name)"
+                            + " on conflict (name) where deleted = false do nothing",
+            nativeQuery = true)
+    int insertMissing(@Param("names") String[] names);
+
+    /**
+     * Adds the book of each index to the author of the same index with one insert into the join
+     * table, instead of loading and rewriting the authors' book lists.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "author_to_book"))
+    @Query(
+            value =
+                    "insert into author_to_book (author_id, authored_books_id)"
+                            + " select * from unnest(cast(:authorIds as bigint[]),"
+                            + " cast(:bookIds as bigint[]))",
+            nativeQuery = true)
+    int addAuthoredBooks(
+            @Param("authorIds") Long[] authorIds, @Param("bookIds") Long[] bookIds);
+
+    /**
+     * Increments the versions of the authors whatever they are now, so their tags change with
+     * books added by {@link #addAuthoredBooks} and concurrent edits don't fail the caller.
+     */
+    @Modifying
+    @Query("update Author a set a.version = a.version + 1 where a.id in :ids")
+    int incrementVersions(@Param("ids") Collection<Long> ids);
 }
@@ -3,11 +3,17 @@ package com.lighthouse.library.io.repository;
 import com.lighthouse.library.io.entity.BookEntity;
 import com.lighthouse.library.io.entity.GenreEntity;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface BookRepository
@@ -15,7 +21,36 @@ public interface BookRepository
 
     Optional<BookEntity> findByTitleAndDeletedFalse(String title);
 
+    @EntityGraph("Book.genres")
+    Optional<BookEntity> findWithGenresByTitleAndDeletedFalse(String title);
+
     boolean existsByTitleAndDeletedFalse(String title);
 
+    @Query(
+            "select new com.lighthouse.library.io.repository.VersionStamp(b.id, b.version,"
+                    + " (select coalesce(sum(g.version), 0) from Book o join o.genres g"
+                    + " where o = b))"
+                    + " from Book b where b.title = :title and b.deleted = false")
+    Optional<VersionStamp> findVersionByTitle(@Param("title") String title);
+
+    List<BookEntity> findByTitleInAndDeletedFalse(Collection<String> titles);
+
+    @Query("select b.title from Book b where b.title in :titles and b.deleted = false")
+    Set<String> findLiveTitles(@Param("titles") Collection<String> titles);
+
     boolean existsByGenresAndDeletedFalse(GenreEntity genre);
+
+    /** The relations that still reference the book, checked in one round trip. */
+    @Query(
+            value =
+                    "select 'library' where exists"
+                            + " (select 1 from library_to_book where books_id = :id)"
+                            + " union all"
+                            + " select 'author' where exists"
+                            + " (select 1 from author_to_book where authored_books_id = :id)"
+                            + " union all"
+                            + " select 'lender' where exists"
+                            + " (select 1 from lender_to_book where lended_books_id = :id)",
+            nativeQuery = true)
+    List<String> findReferencedBy(@Param("id") Long id);
 }
@@ -0,0 +1,15 @@
+package com.lighthouse.library.io.repository;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class BookRow implements ListingRow {
+
+    public static final List<String> COLUMNS = List.of("id", "title", "deleted");
+
+    Long id;
+    String title;
+    Boolean deleted;
+}
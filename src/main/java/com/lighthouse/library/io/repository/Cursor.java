@@ -0,0 +1,74 @@
+package com.lighthouse.library.io.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.NonNull;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque position in a listing: the sort key values of the last returned row, together with the
+ * sort they belong to. Encoded as base64url JSON.
+ */
+public record Cursor(@NonNull String sort, @NonNull List<Object> values) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static Cursor of(@NonNull Object row, @NonNull Sort sort) {
+        BeanWrapper wrapper = new BeanWrapperImpl(row);
+        List<Object> values = new ArrayList<>();
+
+        for (Sort.Order order : sort) {
+            values.add(wrapper.getPropertyValue(order.getProperty()));
+        }
+
+        return new Cursor(signature(sort), values);
+    }
+
+    public static Cursor decode(@NonNull String token, @NonNull Sort sort) {
+        Cursor cursor;
+
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(token);
+            cursor = MAPPER.readValue(json, Cursor.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("The cursor is not valid");
+        }
+
+        if (!signature(sort).equals(cursor.sort())
+                || cursor.values().size() != sort.toList().size()) {
+            throw new IllegalArgumentException("The cursor does not belong to the requested sort");
+        }
+
+        return cursor;
+    }
+
+    public String encode() {
+        try {
+            byte[] json = MAPPER.writeValueAsString(this).getBytes(StandardCharsets.UTF_8);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Couldn't encode the cursor", e);
+        }
+    }
+
+    /** Renders a sort as {@code title,-id}. */
+    public static String signature(@NonNull Sort sort) {
+        List<String> keys = new ArrayList<>();
+
+        for (Sort.Order order : sort) {
+            keys.add((order.isDescending() ? "-" : "") + order.getProperty());
+        }
+
+        return String.join(",", keys);
+    }
+}
@@ -0,0 +1,12 @@
+package com.lighthouse.library.io.repository;
+
+import lombok.Value;
+
+/** An element of a collection of a listed row: its title or name, and whether it is deleted. */
+@Value
+public class ElementRow {
+
+    Long owner;
+    String name;
+    Boolean deleted;
+}
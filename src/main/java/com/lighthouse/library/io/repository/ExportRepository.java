@@ -0,0 +1,80 @@
+package com.lighthouse.library.io.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import lombok.NonNull;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads every row matching a filter in id order, for exports. Rows come from a server-side cursor
+ * and are handed out in chunks, and the persistence context is cleared after each chunk, so the
+ * heap doesn't grow with the number of rows. Lazy collections touched while a chunk is consumed
+ * are batch-loaded for the whole chunk.
+ */
+@Repository
+public class ExportRepository {
+
+    /** Rows fetched per round trip and handed out per chunk. */
+    static final int CHUNK_SIZE = 500;
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public <T> void forEachChunk(
+            @NonNull Class<T> type,
+            @NonNull Specification<T> filter,
+            @NonNull Consumer<List<T>> consumer) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+
+        Predicate predicate = filter.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.select(root).orderBy(cb.asc(root.get("id")));
+
+        try (Stream<T> rows =
+                entityManager
+                        .createQuery(query)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, CHUNK_SIZE)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .getResultStream()) {
+            List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+
+            for (Iterator<T> it = rows.iterator(); it.hasNext(); ) {
+                chunk.add(it.next());
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    consume(chunk, consumer);
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                consume(chunk, consumer);
+            }
+        }
+    }
+
+    private <T> void consume(List<T> chunk, Consumer<List<T>> consumer) {
+        consumer.accept(chunk);
+        chunk.clear();
+        entityManager.clear();
+    }
+}
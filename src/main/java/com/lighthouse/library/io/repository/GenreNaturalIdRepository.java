@@ -0,0 +1,18 @@
+package com.lighthouse.library.io.repository;
+
+import com.lighthouse.library.io.entity.GenreEntity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Genre lookups by name that resolve the name as the natural id of the genre, so they are served
+ * from the second-level cache once the genre has been loaded.
+ */
+public interface GenreNaturalIdRepository {
+
+    Optional<GenreEntity> findByNameAndDeletedFalse(String name);
+
+    List<GenreEntity> findByNameInAndDeletedFalse(Collection<String> names);
+}
@@ -0,0 +1,66 @@
+package com.lighthouse.library.io.repository;
+
+import com.lighthouse.library.io.entity.GenreEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Deleted genres keep their name, which is unique across all rows, so the natural id resolves them
+ * too and they are filtered out after the load. They are detached as well: an upsert reviving them
+ * bypasses the persistence context, and the next lookup has to read them again instead of finding
+ * them still deleted there.
+ */
+@Transactional(readOnly = true)
+class GenreNaturalIdRepositoryImpl implements GenreNaturalIdRepository {
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Override
+    public Optional<GenreEntity> findByNameAndDeletedFalse(String name) {
+        return entityManager
+                .unwrap(Session.class)
+                .bySimpleNaturalId(GenreEntity.class)
+                .loadOptional(name)
+                .filter(this::live);
+    }
+
+    @Override
+    public List<GenreEntity> findByNameInAndDeletedFalse(Collection<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+
+        List<GenreEntity> loaded =
+                entityManager
+                        .unwrap(Session.class)
+                        .byMultipleNaturalId(GenreEntity.class)
+                        .multiLoad(new ArrayList<>(names));
+
+        List<GenreEntity> genres = new ArrayList<>();
+        for (GenreEntity genre : loaded) {
+            if (genre != null && live(genre)) {
+                genres.add(genre);
+            }
+        }
+
+        return genres;
+    }
+
+    private boolean live(GenreEntity genre) {
+        if (genre.getDeleted()) {
+            entityManager.detach(genre);
+            return false;
+        }
+
+        return true;
+    }
+}
@@ -1,18 +1,56 @@
 package com.lighthouse.library.io.repository;
 
 import java.util.List;
-import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.lighthouse.library.io.entity.GenreEntity;
 
 @Repository
-public interface GenreRepository extends CrudRepository<GenreEntity, Long>, JpaSpecificationExecutor<GenreEntity> {
-
-    Optional<GenreEntity> findByNameAndDeletedFalse(String name);
+public interface GenreRepository
+        extends CrudRepository<GenreEntity, Long>,
+                JpaSpecificationExecutor<GenreEntity>,
+                GenreNaturalIdRepository {
 
     boolean existsByNameAndDeletedFalse(String name);
+
+    /**
+     * Inserts the genres that don't exist and revives the deleted ones in a single statement, so a
+     * concurrent insert of the same name waits for this one instead of failing on the unique name.
+     * The names should be distinct and sorted, which keeps concurrent upserts from deadlocking.
+     * Only the cached genres are invalidated by it, not every region.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "genres"))
+    @Query(
+            value =
+                    "insert into genres (id, name, deleted)"
+                            + " select nextval('genres_seq'), new_genres.name, false"
+                            + " from unnest(cast(:names as varchar[])) as new_genres(name)"
+                            + " on conflict (name) do update"
+                            + " set deleted = false, version = genres.version + 1"
+                            + " where genres.deleted",
+            nativeQuery = true)
+    int upsertLive(@Param("names") String[] names);
+
+    /** The relations that still reference the genre, checked in one round trip. */
+    @Query(
+            value =
+                    "select 'book' where exists"
+                            + " (select 1 from book_to_genre"
+                            + " join books on books.id = book_to_genre.book_id"
+                            + " where book_to_genre.genres_id = :id and books.deleted = false)",
+            nativeQuery = true)
+    List<String> findReferencedBy(@Param("id") Long id);
 }
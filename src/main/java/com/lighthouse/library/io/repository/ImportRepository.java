@@ -0,0 +1,165 @@
+package com.lighthouse.library.io.repository;
+
+import com.lighthouse.library.io.entity.AuthorEntity;
+import com.lighthouse.library.io.entity.BookEntity;
+import com.lighthouse.library.io.entity.GenreEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import lombok.NonNull;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes imported books, one transaction per chunk of rows. The genres and authors of a chunk are
+ * resolved into a dictionary with one query each and created when missing, the books go out as
+ * JDBC batches, and the persistence context is cleared once the chunk is flushed, so memory stays
+ * the same however long the import runs. The authors' books are added with one insert into the
+ * join table, as adding them to the loaded authors would rewrite every author's whole book list.
+ *
+ * <p>A stateless session would skip the persistence context altogether, but it doesn't write
+ * many-to-many collections, and every imported book has genres.
+ */
+@Repository
+public class ImportRepository {
+
+    /** A validated row of an import, numbered from 1 in the order it was read. */
+    public record Row(
+            int number,
+            @NonNull String title,
+            @NonNull List<String> genres,
+            @NonNull List<String> authors) {}
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final ReferenceResolver referenceResolver;
+
+    @PersistenceContext private EntityManager entityManager;
+
+    public ImportRepository(
+            @NonNull BookRepository bookRepository,
+            @NonNull AuthorRepository authorRepository,
+            @NonNull ReferenceResolver referenceResolver) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.referenceResolver = referenceResolver;
+    }
+
+    /**
+     * Imports a chunk in one transaction.
+     *
+     * @return the error of every row that was not imported, by row number
+     */
+    @Transactional
+    public Map<Integer, String> importChunk(@NonNull List<Row> rows) {
+        Map<Integer, String> rejected = new LinkedHashMap<>();
+        Set<String> titles = new HashSet<>();
+
+        for (Row row : rows) {
+            titles.add(row.title());
+        }
+
+        Set<String> existingTitles = bookRepository.findLiveTitles(titles);
+        List<Row> accepted = new ArrayList<>();
+        Set<String> genreNames = new HashSet<>();
+        Set<String> authorNames = new HashSet<>();
+
+        for (Row row : rows) {
+            if (existingTitles.contains(row.title())) {
+                rejected.put(row.number(), "A Book with a title already exists: " + row.title());
+                continue;
+            }
+
+            accepted.add(row);
+            genreNames.addAll(row.genres());
+            authorNames.addAll(row.authors());
+        }
+
+        Map<String, GenreEntity> genres = referenceResolver.findOrCreateGenres(genreNames);
+        Map<String, AuthorEntity> authors = findOrCreateAuthors(authorNames);
+        List<BookEntity> books = new ArrayList<>();
+        List<AuthorEntity> bookAuthors = new ArrayList<>();
+        List<BookEntity> authoredBooks = new ArrayList<>();
+
+        for (Row row : accepted) {
+            List<GenreEntity> bookGenres = new ArrayList<>();
+            for (String genreName : row.genres()) {
+                bookGenres.add(genres.get(genreName));
+            }
+
+            BookEntity book = new BookEntity(row.title(), bookGenres);
+            books.add(book);
+
+            for (String authorName : row.authors()) {
+                bookAuthors.add(authors.get(authorName));
+                authoredBooks.add(book);
+            }
+        }
+
+        bookRepository.saveAll(books);
+        entityManager.flush();
+
+        if (!bookAuthors.isEmpty()) {
+            addAuthoredBooks(bookAuthors, authoredBooks);
+        }
+
+        entityManager.clear();
+
+        return rejected;
+    }
+
+    private void addAuthoredBooks(List<AuthorEntity> bookAuthors, List<BookEntity> books) {
+        Long[] authorIds = new Long[bookAuthors.size()];
+        Long[] bookIds = new Long[books.size()];
+        Set<Long> authorIdSet = new HashSet<>();
+
+        for (int i = 0; i < authorIds.length; i++) {
+            authorIds[i] = bookAuthors.get(i).getId();
+            bookIds[i] = books.get(i).getId();
+            authorIdSet.add(authorIds[i]);
+        }
+
+        authorRepository.addAuthoredBooks(authorIds, bookIds);
+        authorRepository.incrementVersions(authorIdSet);
+    }
+
+    /**
+     * The live authors with the given names, the missing ones created with an upsert, so imports
+     * and requests creating the same author concurrently don't reject each other's chunks.
+     */
+    private Map<String, AuthorEntity> findOrCreateAuthors(Set<String> names) {
+        Map<String, AuthorEntity> authors = new HashMap<>();
+        if (names.isEmpty()) {
+            return authors;
+        }
+
+        for (AuthorEntity authorEntity : authorRepository.findByNameInAndDeletedFalse(names)) {
+            authors.put(authorEntity.getName(), authorEntity);
+        }
+
+        Set<String> missingNames = new TreeSet<>(names);
+        missingNames.removeAll(authors.keySet());
+
+        if (!missingNames.isEmpty()) {
+            authorRepository.insertMissing(missingNames.toArray(new String[0]));
+
+            for (AuthorEntity authorEntity :
+                    authorRepository.findByNameInAndDeletedFalse(missingNames)) {
+                authors.put(authorEntity.getName(), authorEntity);
+            }
+        }
+
+        return authors;
+    }
+}
@@ -1,9 +1,14 @@
 package com.lighthouse.library.io.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.lighthouse.library.io.entity.BookEntity;
@@ -14,6 +19,19 @@ public interface LenderRepository extends CrudRepository<LenderEntity, Long>, Jp
 
     Optional<LenderEntity> findByNameAndDeletedFalse(String name);
 
+    List<LenderEntity> findByNameInAndDeletedFalse(Collection<String> names);
+
+    @EntityGraph("Lender.lendedBooks")
+    Optional<LenderEntity> findWithBooksByNameAndDeletedFalse(String name);
+
     boolean existsByNameAndDeletedFalse(String name);
     boolean existsByLendedBooks(BookEntity book);
+
+    /** The relations that still reference the lender, checked in one round trip. */
+    @Query(
+            value =
+                    "select 'library' where exists"
+                            + " (select 1 from library_to_lender where lenders_id = :id)",
+            nativeQuery = true)
+    List<String> findReferencedBy(@Param("id") Long id);
 }
@@ -2,8 +2,15 @@ package com.lighthouse.library.io.repository;
 
 import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.lighthouse.library.io.entity.BookEntity;
@@ -15,7 +22,25 @@ public interface LibraryRepository extends CrudRepository<LibraryEntity, Long>,
 
     Optional<LibraryEntity> findByNameAndDeletedFalse(String name);
 
+    /**
+     * Library names are unique among the live rows only, so they can't be a natural id. The id of
+     * the match is kept in the query cache instead, and the library itself in its entity region.
+     */
+    @EntityGraph("Library.books")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<LibraryEntity> findWithBooksByNameAndDeletedFalse(String name);
+
     boolean existsByNameAndDeletedFalse(String name);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(
+            "select new com.lighthouse.library.io.repository.VersionStamp(l.id, l.version,"
+                    + " (select coalesce(sum(b.version), 0) from Library o join o.books b"
+                    + " where o = l)"
+                    + " + (select coalesce(sum(le.version), 0) from Library o join o.lenders le"
+                    + " where o = l))"
+                    + " from Library l where l.name = :name and l.deleted = false")
+    Optional<VersionStamp> findVersionByName(@Param("name") String name);
     boolean existsByLenders(LenderEntity lender);
     boolean existsByBooks(BookEntity book);
 }
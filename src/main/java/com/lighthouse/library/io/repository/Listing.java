@@ -0,0 +1,14 @@
+package com.lighthouse.library.io.repository;
+
+import java.util.List;
+
+/**
+ * One page of a listing, the cursor of the page after it if there is one, and the total number of
+ * matching rows if it was asked for.
+ */
+public record Listing<T>(List<T> items, Cursor next, Long total, boolean estimatedTotal) {
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -0,0 +1,376 @@
+package com.lighthouse.library.io.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import lombok.NonNull;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Runs the list endpoints. Without a cursor a listing is paged by offset; with a cursor it seeks
+ * past the last returned (sort key, id) tuple, which keeps deep pages as cheap as the first one.
+ * Either way one row more than requested is fetched to tell whether another page follows, so no
+ * count query is issued unless a total is asked for.
+ *
+ * <p>Read-only listings select {@link ListingRow}s instead of entities, and the titles or names in
+ * their collections with {@link #elements}: two statements for a page, and nothing for the
+ * persistence context to snapshot and dirty check.
+ */
+@Repository
+public class ListingRepository {
+
+    /** Rows sampled to estimate the selectivity of a filter. */
+    static final int ESTIMATE_SAMPLE_SIZE = 1000;
+
+    /** Row ids bound to one {@code IN} list when reading collection elements. */
+    static final int ELEMENTS_CHUNK_SIZE = 1000;
+
+    public enum Total {
+        NONE,
+        EXACT,
+        ESTIMATE;
+
+        public static Total of(@NonNull String total) {
+            for (Total value : values()) {
+                if (value.name().equalsIgnoreCase(total)) {
+                    return value;
+                }
+            }
+
+            throw new IllegalArgumentException("total parameter should be none, exact or estimate");
+        }
+    }
+
+    private final ConversionService conversionService =
+            DefaultConversionService.getSharedInstance();
+
+    @PersistenceContext private EntityManager entityManager;
+
+    public <T> Listing<T> find(
+            @NonNull Class<T> type,
+            @NonNull Specification<T> filter,
+            @NonNull Sort sort,
+            int page,
+            int size,
+            String cursor,
+            @NonNull Total total) {
+        return find(type, type, (cb, root) -> root, filter, sort, page, size, cursor, total);
+    }
+
+    /** The page as rows of the given columns, which have to include the sort keys. */
+    public <T, R extends ListingRow> Listing<R> find(
+            @NonNull Class<T> type,
+            @NonNull Class<R> rowType,
+            @NonNull List<String> columns,
+            @NonNull Specification<T> filter,
+            @NonNull Sort sort,
+            int page,
+            int size,
+            String cursor,
+            @NonNull Total total) {
+        BiFunction<CriteriaBuilder, Root<T>, Selection<R>> selection =
+                (cb, root) -> {
+                    List<Selection<?>> paths = new ArrayList<>();
+                    for (String column : columns) {
+                        paths.add(root.get(column));
+                    }
+
+                    return cb.construct(rowType, paths.toArray(new Selection<?>[0]));
+                };
+
+        return find(type, rowType, selection, filter, sort, page, size, cursor, total);
+    }
+
+    /**
+     * The titles or names, by the {@code attribute} of the elements, in the {@code collection} of
+     * each row, keyed by row id. Rows with an empty collection are left out.
+     */
+    public Map<Long, List<ElementRow>> elements(
+            @NonNull Class<?> type,
+            @NonNull String collection,
+            @NonNull String attribute,
+            @NonNull List<? extends ListingRow> rows) {
+        Map<Long, List<ElementRow>> elements = new HashMap<>();
+
+        for (int from = 0; from < rows.size(); from += ELEMENTS_CHUNK_SIZE) {
+            int to = Math.min(rows.size(), from + ELEMENTS_CHUNK_SIZE);
+
+            List<Long> ids = new ArrayList<>();
+            for (ListingRow row : rows.subList(from, to)) {
+                ids.add(row.getId());
+            }
+
+            for (ElementRow element : selectElements(type, collection, attribute, ids)) {
+                elements.computeIfAbsent(element.getOwner(), owner -> new ArrayList<>())
+                        .add(element);
+            }
+        }
+
+        return elements;
+    }
+
+    private <T, R> Listing<R> find(
+            Class<T> type,
+            Class<R> resultType,
+            BiFunction<CriteriaBuilder, Root<T>, Selection<R>> selection,
+            Specification<T> filter,
+            Sort sort,
+            int page,
+            int size,
+            String cursor,
+            Total total) {
+
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("page should be 0 or more and size 1 or more");
+        }
+
+        if ((long) page * size + size >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("page and size are too large");
+        }
+
+        List<R> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = select(type, resultType, selection, filter, sort, (long) page * size, size + 1);
+        } else {
+            Cursor after = Cursor.decode(cursor, sort);
+            items =
+                    select(
+                            type,
+                            resultType,
+                            selection,
+                            filter.and(seek(sort, after)),
+                            sort,
+                            0,
+                            size + 1);
+        }
+
+        boolean hasNext = items.size() > size;
+        if (hasNext) {
+            items = items.subList(0, size);
+        }
+
+        Cursor next = hasNext ? Cursor.of(items.get(items.size() - 1), sort) : null;
+
+        return switch (total) {
+            case NONE -> new Listing<>(items, next, null, false);
+            case EXACT -> new Listing<>(items, next, count(type, filter), false);
+            case ESTIMATE -> new Listing<>(items, next, estimate(type, filter), true);
+        };
+    }
+
+    private <T, R> List<R> select(
+            Class<T> type,
+            Class<R> resultType,
+            BiFunction<CriteriaBuilder, Root<T>, Selection<R>> selection,
+            Specification<T> filter,
+            Sort sort,
+            long offset,
+            int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(resultType);
+        Root<T> root = query.from(type);
+
+        Predicate predicate = filter.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.select(selection.apply(cb, root)).orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager
+                .createQuery(query)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private <T> List<ElementRow> selectElements(
+            Class<T> type, String collection, String attribute, List<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ElementRow> query = cb.createQuery(ElementRow.class);
+        Root<T> root = query.from(type);
+        Join<T, ?> element = root.join(collection);
+
+        query.select(
+                        cb.construct(
+                                ElementRow.class,
+                                root.get("id"),
+                                element.get(attribute),
+                                element.get("deleted")))
+                .where(root.get("id").in(ids));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private <T> long count(Class<T> type, Specification<T> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+
+        Predicate predicate = filter.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.select(cb.count(root));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * The planner's row count of the table, scaled by the share of matching rows in a {@code
+     * TABLESAMPLE SYSTEM} sample of about {@value #ESTIMATE_SAMPLE_SIZE} rows. The sample reads
+     * randomly chosen pages from all over the table instead of the whole of it, so old and new rows
+     * are represented alike; tables smaller than the sample are counted exactly.
+     */
+    private <T> long estimate(Class<T> type, Specification<T> filter) {
+        String table = tableName(type);
+        long tableRows = tableRows(table);
+
+        if (tableRows < ESTIMATE_SAMPLE_SIZE) {
+            return count(type, filter);
+        }
+
+        List<Long> sample = sampleIds(table, 100.0 * ESTIMATE_SAMPLE_SIZE / tableRows);
+        if (sample.isEmpty()) {
+            return count(type, filter);
+        }
+
+        Specification<T> sampled =
+                (sampleRoot, sampleQuery, sampleCb) -> sampleRoot.get("id").in(sample);
+        long matched = count(type, filter.and(sampled));
+
+        return Math.round((double) tableRows * matched / sample.size());
+    }
+
+    private String tableName(Class<?> type) {
+        SessionFactoryImplementor sessionFactory =
+                entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        AbstractEntityPersister persister =
+                (AbstractEntityPersister)
+                        sessionFactory.getMappingMetamodel().getEntityDescriptor(type);
+
+        return persister.getTableName();
+    }
+
+    private long tableRows(String table) {
+        Number rows =
+                (Number)
+                        entityManager
+                                .createNativeQuery(
+                                        "select cast(reltuples as bigint) from pg_class"
+                                                + " where oid = to_regclass(?1)")
+                                .setParameter(1, table)
+                                .getSingleResult();
+
+        return rows.longValue();
+    }
+
+    /** The ids in a sample of the given percent of the table's pages. */
+    @SuppressWarnings("unchecked")
+    private List<Long> sampleIds(String table, double percent) {
+        List<Number> ids =
+                entityManager
+                        .createNativeQuery(
+                                "select id from "
+                                        + table
+                                        + " tablesample system (cast(?1 as real))")
+                        .setParameter(1, percent)
+                        .getResultList();
+
+        List<Long> sample = new ArrayList<>(ids.size());
+        for (Number id : ids) {
+            sample.add(id.longValue());
+        }
+
+        return sample;
+    }
+
+    /**
+     * (k1 > v1) or (k1 = v1 and k2 > v2) or ..., with {@code <} for descending keys, and k1 >= v1
+     * in front so the leading key can drive an index range scan. The sort has to end with a unique
+     * key for the order to be total.
+     */
+    private <T> Specification<T> seek(Sort sort, Cursor cursor) {
+        return (root, query, cb) -> {
+            List<Sort.Order> orders = sort.toList();
+            List<Predicate> alternatives = new ArrayList<>();
+
+            for (int i = 0; i < orders.size(); i++) {
+                List<Predicate> conjunction = new ArrayList<>();
+
+                for (int j = 0; j < i; j++) {
+                    Path<?> path = root.get(orders.get(j).getProperty());
+                    conjunction.add(cb.equal(path, value(path, cursor.values().get(j))));
+                }
+
+                Sort.Order order = orders.get(i);
+                Path<?> path = root.get(order.getProperty());
+                conjunction.add(beyond(cb, path, value(path, cursor.values().get(i)), order));
+
+                alternatives.add(cb.and(conjunction.toArray(new Predicate[0])));
+            }
+
+            Sort.Order leading = orders.get(0);
+            Path<?> leadingPath = root.get(leading.getProperty());
+            Predicate range =
+                    reached(cb, leadingPath, value(leadingPath, cursor.values().get(0)), leading);
+
+            return cb.and(range, cb.or(alternatives.toArray(new Predicate[0])));
+        };
+    }
+
+    private Object value(Path<?> path, Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The cursor is not valid");
+        }
+
+        try {
+            return conversionService.convert(value, path.getJavaType());
+        } catch (ConversionException e) {
+            throw new IllegalArgumentException("The cursor is not valid");
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(
+            CriteriaBuilder cb, Path path, Object value, Sort.Order order) {
+        Comparable comparable = (Comparable) value;
+
+        return order.isAscending()
+                ? cb.greaterThan(path, comparable)
+                : cb.lessThan(path, comparable);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate reached(
+            CriteriaBuilder cb, Path path, Object value, Sort.Order order) {
+        Comparable comparable = (Comparable) value;
+
+        return order.isAscending()
+                ? cb.greaterThanOrEqualTo(path, comparable)
+                : cb.lessThanOrEqualTo(path, comparable);
+    }
+}
@@ -0,0 +1,11 @@
+package com.lighthouse.library.io.repository;
+
+/**
+ * A row of a listing read as plain values with a constructor projection, so the page is never
+ * loaded into the persistence context. The constructor takes the columns in the order of the
+ * row's {@code COLUMNS}.
+ */
+public interface ListingRow {
+
+    Long getId();
+}
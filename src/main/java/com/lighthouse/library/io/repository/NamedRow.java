@@ -0,0 +1,16 @@
+package com.lighthouse.library.io.repository;
+
+import lombok.Value;
+
+import java.util.List;
+
+/** A row of the authors, lenders, libraries or genres, which are all identified by a name. */
+@Value
+public class NamedRow implements ListingRow {
+
+    public static final List<String> COLUMNS = List.of("id", "name", "deleted");
+
+    Long id;
+    String name;
+    Boolean deleted;
+}
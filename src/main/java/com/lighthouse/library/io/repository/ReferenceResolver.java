@@ -0,0 +1,144 @@
+package com.lighthouse.library.io.repository;
+
+import com.lighthouse.library.io.entity.BookEntity;
+import com.lighthouse.library.io.entity.GenreEntity;
+import com.lighthouse.library.io.entity.LenderEntity;
+
+import lombok.NonNull;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Resolves the books, lenders and genres a request refers to by name. Each call looks up the whole
+ * collection of names with one {@code IN} query, and every name that can't be found is reported
+ * in the same error.
+ */
+@Component
+public class ReferenceResolver {
+
+    private final BookRepository bookRepository;
+    private final LenderRepository lenderRepository;
+    private final GenreRepository genreRepository;
+
+    public ReferenceResolver(
+            @NonNull BookRepository bookRepository,
+            @NonNull LenderRepository lenderRepository,
+            @NonNull GenreRepository genreRepository) {
+        this.bookRepository = bookRepository;
+        this.lenderRepository = lenderRepository;
+        this.genreRepository = genreRepository;
+    }
+
+    /** The live books with the given titles, titles that don't exist are left out. */
+    public Map<String, BookEntity> findBooks(@NonNull Collection<String> titles) {
+        if (titles.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        return byName(bookRepository.findByTitleInAndDeletedFalse(titles), BookEntity::getTitle);
+    }
+
+    /**
+     * The live books with the given titles, in the same order.
+     *
+     * @throws IllegalArgumentException naming every title that doesn't exist
+     */
+    public List<BookEntity> books(@NonNull List<String> titles) {
+        return inOrder(titles, findBooks(titles), "Couldn't find books with the titles: ");
+    }
+
+    /** The live lenders with the given names, names that don't exist are left out. */
+    public Map<String, LenderEntity> findLenders(@NonNull Collection<String> names) {
+        if (names.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        return byName(lenderRepository.findByNameInAndDeletedFalse(names), LenderEntity::getName);
+    }
+
+    /**
+     * The live lenders with the given names, in the same order.
+     *
+     * @throws IllegalArgumentException naming every lender that doesn't exist
+     */
+    public List<LenderEntity> lenders(@NonNull List<String> names) {
+        return inOrder(names, findLenders(names), "Couldn't find lenders with the names: ");
+    }
+
+    /**
+     * The live genres with the given names. Genres that don't exist are created and deleted ones
+     * are revived with an upsert, so requests creating the same genre concurrently all succeed.
+     */
+    @Transactional
+    public Map<String, GenreEntity> findOrCreateGenres(@NonNull Collection<String> names) {
+        if (names.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Map<String, GenreEntity> genres =
+                byName(genreRepository.findByNameInAndDeletedFalse(names), GenreEntity::getName);
+
+        Set<String> missingNames = new TreeSet<>(names);
+        missingNames.removeAll(genres.keySet());
+
+        if (!missingNames.isEmpty()) {
+            genreRepository.upsertLive(missingNames.toArray(new String[0]));
+            genres.putAll(
+                    byName(
+                            genreRepository.findByNameInAndDeletedFalse(missingNames),
+                            GenreEntity::getName));
+        }
+
+        return genres;
+    }
+
+    /**
+     * The genres with the given names in the same order, creating the ones that don't exist. Runs
+     * in the caller's transaction, so the genres are only created along with what refers to them.
+     */
+    @Transactional
+    public List<GenreEntity> genres(@NonNull List<String> names) {
+        return inOrder(names, findOrCreateGenres(names), "Couldn't find genres with the names: ");
+    }
+
+    private static <T> Map<String, T> byName(List<T> entities, Function<T, String> name) {
+        Map<String, T> byName = new HashMap<>();
+        for (T entity : entities) {
+            byName.put(name.apply(entity), entity);
+        }
+
+        return byName;
+    }
+
+    private static <T> List<T> inOrder(List<String> names, Map<String, T> found, String missing) {
+        List<T> entities = new ArrayList<>();
+        Set<String> missingNames = new LinkedHashSet<>();
+
+        for (String name : names) {
+            T entity = found.get(name);
+
+            if (entity == null) {
+                missingNames.add(name);
+            } else {
+                entities.add(entity);
+            }
+        }
+
+        if (!missingNames.isEmpty()) {
+            throw new IllegalArgumentException(missing + String.join(", ", missingNames));
+        }
+
+        return entities;
+    }
+}
@@ -0,0 +1,78 @@
+package com.lighthouse.library.io.repository;
+
+import lombok.NonNull;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The sort keys of an entity that are backed by a ({@code key}, {@code id}) index. Parses {@code
+ * sort=title,-id} style parameters and rejects any sort the database would have to order by a
+ * full sort of the filtered rows. The id is always the last key, so the order is total and a
+ * listing can be continued with a cursor. Both keys go in one direction, the index is scanned
+ * forwards or backwards but can't serve {@code title,-id}.
+ */
+public record SortWhitelist(@NonNull Set<String> keys) {
+
+    private static final String ID = "id";
+
+    public static SortWhitelist of(String... keys) {
+        return new SortWhitelist(Set.of(keys));
+    }
+
+    public Sort parse(String sort, @NonNull Sort.Direction defaultDirection) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by(defaultDirection, ID);
+        }
+
+        List<Sort.Order> orders = new ArrayList<>();
+
+        for (String part : sort.split(",")) {
+            String key = part.trim();
+            Sort.Direction direction = Sort.Direction.ASC;
+
+            if (key.startsWith("-")) {
+                direction = Sort.Direction.DESC;
+                key = key.substring(1);
+            } else if (key.startsWith("+")) {
+                key = key.substring(1);
+            }
+
+            if (!orders.isEmpty() && orders.get(orders.size() - 1).getProperty().equals(ID)) {
+                throw new IllegalArgumentException("id should be the last sort key");
+            }
+
+            if (!key.equals(ID) && !keys.contains(key)) {
+                throw new IllegalArgumentException(
+                        "Sorting by '%s' is not supported, sortable keys are %s and id"
+                                .formatted(key, keys));
+            }
+
+            if (!key.equals(ID) && !orders.isEmpty()) {
+                throw new IllegalArgumentException(
+                        "Only one sort key besides id is supported: " + sort);
+            }
+
+            if (!orders.isEmpty() && orders.get(0).getDirection() != direction) {
+                throw new IllegalArgumentException(
+                        "id should be sorted in the direction of the other key: " + sort);
+            }
+
+            orders.add(new Sort.Order(direction, key));
+        }
+
+        if (orders.isEmpty()) {
+            return Sort.by(defaultDirection, ID);
+        }
+
+        Sort.Order last = orders.get(orders.size() - 1);
+        if (!last.getProperty().equals(ID)) {
+            orders.add(new Sort.Order(last.getDirection(), ID));
+        }
+
+        return Sort.by(orders);
+    }
+}
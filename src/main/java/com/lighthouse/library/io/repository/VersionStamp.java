@@ -0,0 +1,8 @@
+package com.lighthouse.library.io.repository;
+
+/**
+ * The version of an entity and the sum of the versions of the entities its representation
+ * includes. The entity version changes whenever one of its collections does and the versions of
+ * the included entities only grow, so every change of the representation changes the stamp.
+ */
+public record VersionStamp(Long id, Long version, Long dependencies) {}
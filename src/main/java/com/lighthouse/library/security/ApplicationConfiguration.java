@@ -13,6 +13,8 @@ import com.lighthouse.library.io.repository.GenreRepository;
 import com.lighthouse.library.io.repository.LenderRepository;
 import com.lighthouse.library.io.repository.LibraryRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
@@ -21,40 +23,55 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.time.Duration;
 import java.util.List;
 
 @Configuration
 public class ApplicationConfiguration {
     private final AppUserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.user-cache.max-size}")
+    private long userCacheMaxSize;
+
+    @Value("${security.user-cache.ttl}")
+    private Duration userCacheTtl;
+
+    @Value("${security.password.strength}")
+    private int passwordStrength;
+
+    @Value("${security.password.target-hash-time}")
+    private Duration passwordTargetHashTime;
 
-    public ApplicationConfiguration(AppUserRepository userRepository) {
+    @Value("${security.password.min-strength}")
+    private int passwordMinStrength;
+
+    @Value("${security.password.queue-depth}")
+    private int passwordQueueDepth;
+
+    public ApplicationConfiguration(
+            AppUserRepository userRepository, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
-    UserDetailsService userDetailsService() {
-
-        return username -> {
-            AppUserEntity user =
-                    userRepository
-                            .findByUsernameAndDeletedFalse(username)
-                            .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-            return new User(
-                    user.getUsername(),
-                    user.getPassword(),
-                    List.of(new SimpleGrantedAuthority("USER")));
-        };
+    CachedUserDetailsService userDetailsService() {
+        return new CachedUserDetailsService(
+                userRepository, userCacheMaxSize, userCacheTtl, meterRegistry);
     }
 
     @Bean
     BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength =
+                passwordStrength > 0
+                        ? passwordStrength
+                        : BoundedPasswordEncoder.calibrate(
+                                passwordTargetHashTime, passwordMinStrength);
+
+        return new BoundedPasswordEncoder(strength, passwordQueueDepth, meterRegistry);
     }
 
     @Bean
@@ -69,6 +86,8 @@ public class ApplicationConfiguration {
 
         authProvider.setUserDetailsService(userDetailsService());
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rehashes a password checked against a hash of a lower strength than the configured one.
+        authProvider.setUserDetailsPasswordService(userDetailsService());
 
         return authProvider;
     }
@@ -86,6 +105,11 @@ public class ApplicationConfiguration {
             @Value("${admin.password}") String adminPass) {
 
         return args -> {
+            // The schema outlives restarts now, seed an empty database only.
+            if (appUserRepository.count() > 0) {
+                return;
+            }
+
             appUserRepository.save(
                     new AppUserEntity(adminUsername, encoder.encode(adminPass), "ADMIN"));
             appUserRepository.save(new AppUserEntity("user", encoder.encode("pass")));
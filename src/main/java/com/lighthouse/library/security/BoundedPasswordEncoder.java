@@ -0,0 +1,128 @@
+package com.lighthouse.library.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes and checks passwords on a pool of one platform thread per CPU, so logins and signups
+ * can't starve the request threads of CPU, and a burst of them can't pile up unbounded. Once
+ * {@code queueDepth} hashes are waiting for a thread, further ones are rejected with a {@link
+ * PasswordHashingRejectedException} right away instead of waiting behind the queue.
+ */
+@Slf4j
+public class BoundedPasswordEncoder extends MeteredPasswordEncoder implements AutoCloseable {
+
+    /** Each step doubles the cost, 14 already takes a second on most hardware. */
+    static final int MAX_STRENGTH = 14;
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final ThreadPoolExecutor executor;
+
+    public BoundedPasswordEncoder(
+            int strength, int queueDepth, @NonNull MeterRegistry meterRegistry) {
+        super(strength, meterRegistry);
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+
+        this.executor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        0,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueDepth),
+                        task -> {
+                            Thread thread = new Thread(task);
+                            thread.setName("password-hashing-" + count.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        },
+                        new ThreadPoolExecutor.AbortPolicy());
+
+        meterRegistry.gauge("library.password.queue", executor, pool -> pool.getQueue().size());
+    }
+
+    /**
+     * The highest strength from {@code minStrength} up to {@value #MAX_STRENGTH} that hashes a
+     * password within {@code target} on this machine, and {@code minStrength} if none does.
+     */
+    public static int calibrate(@NonNull Duration target, int minStrength) {
+        int strength = minStrength;
+
+        for (int candidate = minStrength; candidate <= MAX_STRENGTH; candidate++) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(candidate);
+            encoder.encode(CALIBRATION_PASSWORD);
+
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i < 3; i++) {
+                long start = System.nanoTime();
+                encoder.encode(CALIBRATION_PASSWORD);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+
+            if (best > target.toNanos()) {
+                break;
+            }
+
+            strength = candidate;
+        }
+
+        log.info("BCrypt strength {} hashes a password within {}", strength, target);
+
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> super.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> super.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> hashing) {
+        Future<T> result;
+        try {
+            result = executor.submit(hashing);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingRejectedException("Too many passwords are being hashed", e);
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.lighthouse.library.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lighthouse.library.io.entity.AppUserEntity;
+import com.lighthouse.library.io.repository.AppUserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import lombok.NonNull;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Loads users from the database and keeps them in a bounded in-process cache for a fixed time.
+ * Every write to a user has to {@link #evict(String)} its username.
+ */
+public class CachedUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+    private final AppUserRepository userRepository;
+    private final Cache<String, UserDetails> users;
+
+    public CachedUserDetailsService(
+            @NonNull AppUserRepository userRepository,
+            long maxSize,
+            @NonNull Duration ttl,
+            @NonNull MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        // Hits, misses and evictions are published as the cache.* meters of the users cache.
+        this.users =
+                CaffeineCacheMetrics.monitor(
+                        meterRegistry,
+                        Caffeine.newBuilder()
+                                .maximumSize(maxSize)
+                                .expireAfterWrite(ttl)
+                                .recordStats()
+                                .<String, UserDetails>build(),
+                        "users");
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails userDetails = users.get(username, this::load);
+
+        // The authentication manager erases the credentials of the returned instance, so
+        // callers never get the cached one.
+        return User.withUserDetails(userDetails).build();
+    }
+
+    /**
+     * Stores the rehash of a password that was just checked, so raising the strength upgrades
+     * every hash on its user's next login. It is not a password change, tokens stay valid.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository
+                .findByUsernameAndDeletedFalse(user.getUsername())
+                .ifPresent(
+                        appUser -> {
+                            appUser.setPassword(newPassword);
+                            userRepository.save(appUser);
+                        });
+        evict(user.getUsername());
+
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
+    public void evict(String username) {
+        users.invalidate(username);
+    }
+
+    private UserDetails load(String username) {
+        AppUserEntity user =
+                userRepository
+                        .findByUsernameAndDeletedFalse(username)
+                        .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return new User(
+                user.getUsername(),
+                user.getPassword(),
+                List.of(new SimpleGrantedAuthority(user.getRole())));
+    }
+}
@@ -0,0 +1,96 @@
+package com.lighthouse.library.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * The actuator endpoints have a filter chain of their own, ahead of the JWT one: the health check
+ * is open and everything else, the Prometheus scrape included, takes HTTP basic with the metrics
+ * user from the properties. Application users and their tokens aren't accepted there.
+ *
+ * <p>The metrics password is checked against its SHA-256 instead of with the application's BCrypt
+ * encoder, so scrapes don't take hashing threads from logins or get rejected when they are busy.
+ */
+@Configuration
+public class ManagementSecurityConfiguration {
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementSecurityFilterChain(
+            HttpSecurity http,
+            @Value("${metrics.username}") String username,
+            @Value("${metrics.password}") String password)
+            throws Exception {
+
+        PasswordEncoder encoder = new Sha256PasswordEncoder();
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsService(
+                new InMemoryUserDetailsManager(
+                        User.withUsername(username)
+                                .password(encoder.encode(password))
+                                .authorities("METRICS")
+                                .build()));
+
+        http.securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(
+                        auth ->
+                                auth.requestMatchers(EndpointRequest.to(HealthEndpoint.class))
+                                        .permitAll()
+                                        .anyRequest()
+                                        .hasAuthority("METRICS"))
+                .httpBasic(Customizer.withDefaults())
+                .sessionManagement(
+                        session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authenticationManager(new ProviderManager(provider));
+
+        return http.build();
+    }
+
+    /**
+     * Compares digests in constant time. Fit only for a secret set in the configuration like the
+     * metrics password, not for the passwords users choose.
+     */
+    static final class Sha256PasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return HexFormat.of().formatHex(digest(rawPassword));
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword != null
+                    && MessageDigest.isEqual(
+                            digest(rawPassword), HexFormat.of().parseHex(encodedPassword));
+        }
+
+        private static byte[] digest(CharSequence rawPassword) {
+            try {
+                return MessageDigest.getInstance("SHA-256")
+                        .digest(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.lighthouse.library.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.NonNull;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/** BCrypt with a timer around every hash and check, most of what a signup or a login costs. */
+public class MeteredPasswordEncoder extends BCryptPasswordEncoder {
+
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer mismatchTimer;
+
+    public MeteredPasswordEncoder(int strength, @NonNull MeterRegistry meterRegistry) {
+        super(strength);
+        this.encodeTimer =
+                Timer.builder("library.password.encode")
+                        .description("Time to hash a password")
+                        .register(meterRegistry);
+        this.matchTimer = checkTimer(meterRegistry, "match");
+        this.mismatchTimer = checkTimer(meterRegistry, "mismatch");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> super.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = super.matches(rawPassword, encodedPassword);
+
+        (matches ? matchTimer : mismatchTimer)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        return matches;
+    }
+
+    private static Timer checkTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("library.password.check")
+                .description("Time to check a password against its hash")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
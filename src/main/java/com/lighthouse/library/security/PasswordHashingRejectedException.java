@@ -0,0 +1,9 @@
+package com.lighthouse.library.security;
+
+/** Thrown when every password hashing thread is busy and the queue in front of them is full. */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
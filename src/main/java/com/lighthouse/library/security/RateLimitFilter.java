@@ -0,0 +1,187 @@
+package com.lighthouse.library.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.NonNull;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token bucket limits per client and route group, applied after {@link JwtAuthenticationFilter}
+ * has set the user. Requests to {@code /auth/**} are counted per client address, since nobody is
+ * logged in yet, every other request per username, or per address when it has no valid token.
+ * Every limited response carries the {@code RateLimit-*} headers, a rejected one a 429 with {@code
+ * Retry-After}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String RATE_LIMIT_LIMIT = "RateLimit-Limit";
+    static final String RATE_LIMIT_REMAINING = "RateLimit-Remaining";
+    static final String RATE_LIMIT_RESET = "RateLimit-Reset";
+    static final String RATE_LIMIT_POLICY = "RateLimit-Policy";
+
+    private static final PathPattern AUTH = PathPatternParser.defaultInstance.parse("/auth/**");
+
+    private record Group(
+            @NonNull String name,
+            @NonNull PathPattern pattern,
+            @NonNull RateLimiter.Limit limit,
+            @NonNull Counter rejected) {}
+
+    private final List<Group> groups = new ArrayList<>();
+    private final Map<String, RateLimiter.Limit> userLimits = new HashMap<>();
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(
+            @Value("${rate-limit.groups}") String groups,
+            @Value("${rate-limit.users:}") String users,
+            @Value("${rate-limit.max-clients}") long maxClients,
+            @NonNull MeterRegistry meterRegistry) {
+        for (String group : entries(groups, "rate-limit.groups", "group /pattern=limit")) {
+            String[] parts = group.split("=", 2);
+            String[] nameAndPattern = parts[0].trim().split("\\s+", 2);
+
+            if (nameAndPattern.length != 2) {
+                throw new IllegalArgumentException(
+                        "rate-limit.groups should be 'group /pattern=limit' entries: " + group);
+            }
+
+            this.groups.add(
+                    new Group(
+                            nameAndPattern[0],
+                            PathPatternParser.defaultInstance.parse(nameAndPattern[1]),
+                            RateLimiter.Limit.parse(parts[1]),
+                            Counter.builder("library.rate-limit.rejected")
+                                    .description(
+                                            "Requests rejected for going over their rate limit")
+                                    .tag("group", nameAndPattern[0])
+                                    .register(meterRegistry)));
+        }
+
+        for (String user : entries(users, "rate-limit.users", "username group=limit")) {
+            String[] parts = user.split("=", 2);
+            String userAndGroup = String.join(" ", parts[0].trim().split("\\s+"));
+
+            this.userLimits.put(userAndGroup, RateLimiter.Limit.parse(parts[1]));
+        }
+
+        Duration longestPeriod = Duration.ofSeconds(1);
+        for (Group group : this.groups) {
+            if (group.limit().period().compareTo(longestPeriod) > 0) {
+                longestPeriod = group.limit().period();
+            }
+        }
+        for (RateLimiter.Limit limit : this.userLimits.values()) {
+            if (limit.period().compareTo(longestPeriod) > 0) {
+                longestPeriod = limit.period();
+            }
+        }
+
+        this.rateLimiter = new RateLimiter(maxClients, longestPeriod);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        Group group = group(path);
+
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String client = "address " + request.getRemoteAddr();
+        RateLimiter.Limit limit = group.limit();
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!AUTH.matches(path) && authentication != null && authentication.isAuthenticated()) {
+            client = "user " + authentication.getName();
+            limit = userLimits.getOrDefault(authentication.getName() + " " + group.name(), limit);
+        }
+
+        RateLimiter.Decision decision = rateLimiter.acquire(group.name() + " " + client, limit);
+
+        response.setHeader(RATE_LIMIT_LIMIT, String.valueOf(limit.capacity()));
+        response.setHeader(RATE_LIMIT_REMAINING, String.valueOf(decision.remaining()));
+        response.setHeader(RATE_LIMIT_RESET, String.valueOf(seconds(decision.reset())));
+        response.setHeader(
+                RATE_LIMIT_POLICY,
+                "%d;w=%d".formatted(limit.capacity(), seconds(limit.period())));
+
+        if (!decision.allowed()) {
+            group.rejected().increment();
+
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(
+                    HttpHeaders.RETRY_AFTER, String.valueOf(seconds(decision.retryAfter())));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many requests, try again later");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Group group(PathContainer path) {
+        for (Group group : groups) {
+            if (group.pattern().matches(path)) {
+                return group;
+            }
+        }
+
+        return null;
+    }
+
+    /** Whole seconds, rounded up so a client waiting them is never early. */
+    private static long seconds(Duration duration) {
+        return (duration.toNanos() + 999_999_999) / 1_000_000_000;
+    }
+
+    private static List<String> entries(String entries, String property, String format) {
+        List<String> result = new ArrayList<>();
+
+        for (String entry : entries.split(";")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+
+            if (entry.indexOf('=') < 0) {
+                throw new IllegalArgumentException(
+                        "%s should be '%s' entries: %s".formatted(property, format, entry));
+            }
+
+            result.add(entry.trim());
+        }
+
+        return result;
+    }
+}
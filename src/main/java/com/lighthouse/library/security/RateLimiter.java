@@ -0,0 +1,86 @@
+package com.lighthouse.library.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.NonNull;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets in a bounded map that drops the buckets of idle clients. A bucket is the single
+ * time at which it will be full again (the generic cell rate algorithm), so taking a token is one
+ * compare-and-set and clients never wait on each other.
+ */
+public class RateLimiter {
+
+    /** {@code capacity} tokens that refill evenly over {@code period}. */
+    public record Limit(long capacity, @NonNull Duration period) {
+
+        public Limit {
+            if (capacity < 1 || period.toNanos() < capacity) {
+                throw new IllegalArgumentException(
+                        "A rate limit should allow 1 or more requests per period: " + capacity);
+            }
+        }
+
+        /** Parses {@code 100/1s}. */
+        public static Limit parse(@NonNull String limit) {
+            int separator = limit.indexOf('/');
+            if (separator < 0) {
+                throw new IllegalArgumentException(
+                        "A rate limit should be 'capacity/period': " + limit);
+            }
+
+            return new Limit(
+                    Long.parseLong(limit.substring(0, separator).trim()),
+                    DurationStyle.detectAndParse(limit.substring(separator + 1).trim()));
+        }
+
+        long interval() {
+            return period.toNanos() / capacity;
+        }
+    }
+
+    /** The outcome of taking a token, with the time until the bucket is full again. */
+    public record Decision(boolean allowed, long remaining, Duration reset, Duration retryAfter) {}
+
+    private final Cache<String, AtomicLong> buckets;
+
+    /** An idle bucket is full again after {@code longestPeriod}, so it can be dropped then. */
+    public RateLimiter(long maxBuckets, @NonNull Duration longestPeriod) {
+        this.buckets =
+                Caffeine.newBuilder()
+                        .maximumSize(maxBuckets)
+                        .expireAfterAccess(longestPeriod)
+                        .build();
+    }
+
+    public Decision acquire(@NonNull String key, @NonNull Limit limit) {
+        long now = System.nanoTime();
+        AtomicLong fullAt = buckets.get(key, bucket -> new AtomicLong(now));
+        long period = limit.period().toNanos();
+
+        while (true) {
+            long current = fullAt.get();
+            long backlog = Math.max(0, current - now);
+            long next = backlog + limit.interval();
+
+            if (next > period) {
+                return new Decision(
+                        false, 0, Duration.ofNanos(backlog), Duration.ofNanos(next - period));
+            }
+
+            if (fullAt.compareAndSet(current, now + next)) {
+                return new Decision(
+                        true,
+                        (period - next) / limit.interval(),
+                        Duration.ofNanos(next),
+                        Duration.ZERO);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.lighthouse.library.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lighthouse.library.io.repository.AppUserRepository;
+
+import lombok.NonNull;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * In-memory table of the current token epoch of recently seen users. A token is only accepted
+ * while the epoch it was issued with is still the user's current epoch, so bumping the epoch
+ * revokes all outstanding tokens of a user. Entries are loaded from {@code
+ * AppUserEntity.tokenEpoch} on first use, kept up to date by the user write paths of this
+ * instance, and expire after {@code security.token-epochs.ttl}, which bounds how long a
+ * revocation made on another instance goes unnoticed. Unknown usernames are not kept.
+ */
+@Component
+public class TokenEpochRegistry {
+    static final long REVOKED = -1;
+
+    private final AppUserRepository userRepository;
+    private final Cache<String, Long> epochs;
+
+    public TokenEpochRegistry(
+            AppUserRepository userRepository,
+            @Value("${security.token-epochs.max-size}") long maxSize,
+            @Value("${security.token-epochs.ttl}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.epochs = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+    }
+
+    public long currentEpoch(@NonNull String username) {
+        Long epoch =
+                epochs.get(
+                        username,
+                        user -> userRepository.findTokenEpochByUsername(user).orElse(null));
+
+        return epoch != null ? epoch : REVOKED;
+    }
+
+    public boolean isCurrent(@NonNull String username, long epoch) {
+        long current = currentEpoch(username);
+        return current != REVOKED && current == epoch;
+    }
+
+    /**
+     * The epoch a new user, or a user renamed to {@code username}, starts with: above the epoch of
+     * every earlier user of the name, so tokens issued to a deleted account never become valid for
+     * the account that takes its name.
+     */
+    public long firstEpoch(@NonNull String username) {
+        return userRepository
+                .findMaxTokenEpochByUsername(username)
+                .map(epoch -> epoch + 1)
+                .orElse(0L);
+    }
+
+    public void update(@NonNull String username, long epoch) {
+        epochs.put(username, epoch);
+    }
+
+    public void revoke(@NonNull String username) {
+        epochs.put(username, REVOKED);
+    }
+}
@@ -2,10 +2,15 @@ package com.lighthouse.library.view.controller;
 
 import com.lighthouse.library.io.entity.AppUserEntity;
 import com.lighthouse.library.io.repository.AppUserRepository;
+import com.lighthouse.library.security.CachedUserDetailsService;
 import com.lighthouse.library.security.JwtService;
+import com.lighthouse.library.security.TokenEpochRegistry;
 import com.lighthouse.library.view.model.CustomObjectMapper;
 import com.lighthouse.library.view.model.response.AppUser;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import lombok.NonNull;
 
 import org.springframework.http.HttpHeaders;
@@ -30,16 +35,27 @@ public class AuthenticationController {
     private final AppUserRepository appUserRepository;
     private final BCryptPasswordEncoder encoder;
     private final AuthenticationManager authenticationManager;
+    private final CachedUserDetailsService userDetailsService;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final Timer successfulLogins;
+    private final Timer failedLogins;
 
     public AuthenticationController(
             @NonNull JwtService jwtService,
             @NonNull BCryptPasswordEncoder encoder,
             @NonNull AppUserRepository appUserRepository,
-            @NonNull AuthenticationManager authenticationManager) {
+            @NonNull AuthenticationManager authenticationManager,
+            @NonNull CachedUserDetailsService userDetailsService,
+            @NonNull TokenEpochRegistry tokenEpochRegistry,
+            @NonNull MeterRegistry meterRegistry) {
         this.encoder = encoder;
         this.jwtService = jwtService;
         this.appUserRepository = appUserRepository;
         this.authenticationManager = authenticationManager;
+        this.userDetailsService = userDetailsService;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.successfulLogins = loginTimer(meterRegistry, "success");
+        this.failedLogins = loginTimer(meterRegistry, "failure");
     }
 
     @PostMapping("/signup")
@@ -52,7 +68,11 @@ public class AuthenticationController {
         }
 
         appUserEntity.setPassword(encoder.encode(appUserEntity.getPassword()));
+        appUserEntity.setTokenEpoch(tokenEpochRegistry.firstEpoch(appUserEntity.getUsername()));
         appUserEntity = appUserRepository.save(appUserEntity);
+        userDetailsService.evict(appUserEntity.getUsername());
+        tokenEpochRegistry.update(appUserEntity.getUsername(), appUserEntity.getTokenEpoch());
+
         appUser = CustomObjectMapper.map(appUserEntity);
 
         return ResponseEntity.ok(appUser);
@@ -64,19 +84,31 @@ public class AuthenticationController {
         CustomObjectMapper.validateName(appUser.getUsername());
         CustomObjectMapper.validatePassword(appUser.getPassword());
 
+        Timer.Sample login = Timer.start();
+
         try {
             Authentication authenticate =
                     authenticationManager.authenticate(
                             new UsernamePasswordAuthenticationToken(
                                     appUser.getUsername(), appUser.getPassword()));
             UserDetails userDetails = (UserDetails) authenticate.getPrincipal();
+            login.stop(successfulLogins);
 
             return ResponseEntity.ok()
                     .header(HttpHeaders.AUTHORIZATION, jwtService.generateToken(userDetails))
                     .body(authenticate.getPrincipal());
 
         } catch (BadCredentialsException ex) {
+            login.stop(failedLogins);
+
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
     }
+
+    private static Timer loginTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("library.auth.login")
+                .description("Time to authenticate a login, mostly the password check")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
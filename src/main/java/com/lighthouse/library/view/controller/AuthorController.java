@@ -5,18 +5,26 @@ import static com.lighthouse.library.view.model.CustomObjectMapper.validateName;
 import com.lighthouse.library.io.entity.AuthorEntity;
 import com.lighthouse.library.io.entity.BookEntity;
 import com.lighthouse.library.io.repository.AuthorRepository;
-import com.lighthouse.library.io.repository.BookRepository;
+import com.lighthouse.library.io.repository.ElementRow;
+import com.lighthouse.library.io.repository.ExportRepository;
+import com.lighthouse.library.io.repository.Listing;
+import com.lighthouse.library.io.repository.ListingRepository;
+import com.lighthouse.library.io.repository.NamedRow;
+import com.lighthouse.library.io.repository.ReferenceResolver;
+import com.lighthouse.library.io.repository.SortWhitelist;
+import com.lighthouse.library.io.repository.VersionStamp;
 import com.lighthouse.library.view.model.CustomObjectMapper;
 import com.lighthouse.library.view.model.response.Author;
+import com.lighthouse.library.view.model.response.BatchResult;
 
 import jakarta.persistence.criteria.Predicate;
 
 import lombok.NonNull;
 
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -26,23 +34,42 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /** AuthorController */
 @RestController
 @RequestMapping("/authors")
 public class AuthorController {
 
+    static final SortWhitelist SORTABLE = SortWhitelist.of("name");
+
     private final AuthorRepository authorRepository;
-    private final BookRepository bookRepository;
+    private final ListingRepository listingRepository;
+    private final ExportRepository exportRepository;
+    private final ReferenceResolver referenceResolver;
+    private final SingleFlight singleFlight;
 
     public AuthorController(
-            @NonNull BookRepository bookRepository, @NonNull AuthorRepository authorRepository) {
-        this.bookRepository = bookRepository;
+            @NonNull AuthorRepository authorRepository,
+            @NonNull ListingRepository listingRepository,
+            @NonNull ExportRepository exportRepository,
+            @NonNull ReferenceResolver referenceResolver,
+            @NonNull SingleFlight singleFlight) {
         this.authorRepository = authorRepository;
+        this.listingRepository = listingRepository;
+        this.exportRepository = exportRepository;
+        this.referenceResolver = referenceResolver;
+        this.singleFlight = singleFlight;
     }
 
     @GetMapping
@@ -50,17 +77,43 @@ public class AuthorController {
             @RequestParam Map<String, String> filters,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
-            @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder) {
-
-        Iterable<AuthorEntity> allAuthors =
-                authorRepository.findAll(filter(filters), PageRequest.of(page, size));
+            @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "none") String total) {
+
+        Listing<NamedRow> allAuthors =
+                listingRepository.find(
+                        AuthorEntity.class,
+                        NamedRow.class,
+                        NamedRow.COLUMNS,
+                        filter(filters),
+                        SORTABLE.parse(sort, sortOrder),
+                        page,
+                        size,
+                        cursor,
+                        ListingRepository.Total.of(total));
+
+        Map<Long, List<ElementRow>> authoredBooks =
+                listingRepository.elements(
+                        AuthorEntity.class, "authoredBooks", "title", allAuthors.items());
 
         List<Author> responseAuthors = new ArrayList<>();
-        for (AuthorEntity bookEntity : allAuthors) {
-            responseAuthors.add(CustomObjectMapper.map(bookEntity));
+        for (NamedRow authorRow : allAuthors.items()) {
+            responseAuthors.add(
+                    CustomObjectMapper.mapAuthor(
+                            authorRow, authoredBooks.getOrDefault(authorRow.getId(), List.of())));
         }
 
-        return ResponseEntity.ok(responseAuthors);
+        return ResponseEntity.ok().headers(ListingHeaders.of(allAuthors)).body(responseAuthors);
+    }
+
+    /** Streams every author matching the filters as newline-delimited JSON, in id order. */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAuthors(
+            @RequestParam Map<String, String> filters) {
+        return NdjsonExport.of(
+                exportRepository, AuthorEntity.class, filter(filters), CustomObjectMapper::map);
     }
 
     @PostMapping
@@ -72,55 +125,147 @@ public class AuthorController {
                     "An author with the name already exists: " + authorEntity.getName());
         }
 
-        List<BookEntity> authoredBooks = authorEntity.getAuthoredBooks();
+        authorEntity.setAuthoredBooks(referenceResolver.books(author.getAuthoredBooks()));
+        authorEntity = authorRepository.save(authorEntity);
+        author = CustomObjectMapper.map(authorEntity);
 
-        for (String bookTitle : author.getAuthoredBooks()) {
-            BookEntity authoredBook =
-                    bookRepository
-                            .findByTitleAndDeletedFalse(bookTitle)
-                            .orElseThrow(
-                                    () ->
-                                            new IllegalArgumentException(
-                                                    "A Book with the title doesn't exist: "
-                                                            + bookTitle));
+        return ResponseEntity.ok(author);
+    }
 
-            authoredBooks.add(authoredBook);
+    /**
+     * Creates up to {@value Batches#MAX_ITEMS} authors in one transaction. Names and authored
+     * books are looked up once for the whole batch and the rows are inserted in JDBC batches. An
+     * item that can't be created is reported in its result and doesn't stop the others.
+     */
+    @PostMapping("/batch")
+    @Transactional
+    public ResponseEntity<List<BatchResult<Author>>> createAuthors(
+            @RequestBody List<Author> authors) {
+        Batches.checkSize(authors);
+
+        List<BatchResult<Author>> results =
+                new ArrayList<>(Collections.nCopies(authors.size(), null));
+        Map<Integer, AuthorEntity> accepted = new LinkedHashMap<>();
+        Set<String> names = new HashSet<>();
+
+        for (int i = 0; i < authors.size(); i++) {
+            try {
+                AuthorEntity authorEntity = CustomObjectMapper.map(authors.get(i));
+
+                if (!names.add(authorEntity.getName())) {
+                    throw new IllegalArgumentException(
+                            "An author with the name is already in the batch: "
+                                    + authorEntity.getName());
+                }
+
+                accepted.put(i, authorEntity);
+            } catch (IllegalArgumentException e) {
+                results.set(i, BatchResult.rejected(i, e.getMessage()));
+            }
         }
 
-        authorEntity.setAuthoredBooks(authoredBooks);
-        authorEntity = authorRepository.save(authorEntity);
-        author = CustomObjectMapper.map(authorEntity);
+        if (!accepted.isEmpty()) {
+            Set<String> existingNames = authorRepository.findLiveNames(names);
+            Set<String> bookTitles = new HashSet<>();
 
-        return ResponseEntity.ok(author);
+            for (Map.Entry<Integer, AuthorEntity> entry : accepted.entrySet()) {
+                bookTitles.addAll(authors.get(entry.getKey()).getAuthoredBooks());
+            }
+
+            Map<String, BookEntity> booksByTitle = referenceResolver.findBooks(bookTitles);
+
+            for (Iterator<Map.Entry<Integer, AuthorEntity>> it = accepted.entrySet().iterator();
+                    it.hasNext(); ) {
+                Map.Entry<Integer, AuthorEntity> entry = it.next();
+                AuthorEntity authorEntity = entry.getValue();
+
+                try {
+                    if (existingNames.contains(authorEntity.getName())) {
+                        throw new IllegalArgumentException(
+                                "An author with the name already exists: "
+                                        + authorEntity.getName());
+                    }
+
+                    List<BookEntity> authoredBooks = new ArrayList<>();
+                    for (String bookTitle : authors.get(entry.getKey()).getAuthoredBooks()) {
+                        BookEntity authoredBook = booksByTitle.get(bookTitle);
+
+                        if (authoredBook == null) {
+                            throw new IllegalArgumentException(
+                                    "A Book with the title doesn't exist: " + bookTitle);
+                        }
+
+                        authoredBooks.add(authoredBook);
+                    }
+
+                    authorEntity.setAuthoredBooks(authoredBooks);
+                } catch (IllegalArgumentException e) {
+                    results.set(
+                            entry.getKey(), BatchResult.rejected(entry.getKey(), e.getMessage()));
+                    it.remove();
+                }
+            }
+
+            authorRepository.saveAll(accepted.values());
+
+            for (Map.Entry<Integer, AuthorEntity> entry : accepted.entrySet()) {
+                results.set(
+                        entry.getKey(),
+                        BatchResult.created(
+                                entry.getKey(), CustomObjectMapper.map(entry.getValue())));
+            }
+        }
+
+        return ResponseEntity.ok(results);
     }
 
     @GetMapping("/{name}")
-    public ResponseEntity<Author> getAuthor(@PathVariable String name) {
-        AuthorEntity authorEntity =
+    public ResponseEntity<Author> getAuthor(@PathVariable String name, WebRequest request) {
+        VersionStamp stamp =
                 authorRepository
-                        .findByNameAndDeletedFalse(name)
+                        .findVersionByName(name)
                         .orElseThrow(
                                 () ->
                                         new IllegalArgumentException(
                                                 "Couldn't find an author with the name: " + name));
 
-        Author author = CustomObjectMapper.map(authorEntity);
+        if (request.checkNotModified(EntityTags.of(stamp))) {
+            return null;
+        }
 
-        return ResponseEntity.ok(author);
+        SingleFlight.Loaded<Author> author = singleFlight.load("authors", name, () -> load(name));
+
+        return ResponseEntity.ok().eTag(author.etag()).body(author.body());
+    }
+
+    private SingleFlight.Loaded<Author> load(String name) {
+        AuthorEntity authorEntity =
+                authorRepository
+                        .findWithBooksByNameAndDeletedFalse(name)
+                        .orElseThrow(
+                                () ->
+                                        new IllegalArgumentException(
+                                                "Couldn't find an author with the name: " + name));
+
+        return new SingleFlight.Loaded<>(CustomObjectMapper.map(authorEntity), etag(authorEntity));
     }
 
     @PatchMapping("/{name}")
     public ResponseEntity<Author> updateAuthor(
-            @PathVariable String name, @RequestBody Author author) {
+            @PathVariable String name, @RequestBody Author author, WebRequest request) {
 
         AuthorEntity authorEntity =
                 authorRepository
-                        .findByNameAndDeletedFalse(name)
+                        .findWithBooksByNameAndDeletedFalse(name)
                         .orElseThrow(
                                 () ->
                                         new IllegalArgumentException(
                                                 "Couldn't find an author with the name: " + name));
 
+        if (request.checkNotModified(etag(authorEntity))) {
+            return null;
+        }
+
         if (author.getName() != null) {
             validateName(author.getName());
 
@@ -133,26 +278,15 @@ public class AuthorController {
         }
 
         if (!author.getAuthoredBooks().isEmpty()) {
+            List<BookEntity> authoredBooks = referenceResolver.books(author.getAuthoredBooks());
             authorEntity.getAuthoredBooks().clear();
-
-            for (String bookTitle : author.getAuthoredBooks()) {
-                BookEntity authoredBook =
-                        bookRepository
-                                .findByTitleAndDeletedFalse(bookTitle)
-                                .orElseThrow(
-                                        () ->
-                                                new IllegalArgumentException(
-                                                        "A Book with the title doesn't exist: "
-                                                                + bookTitle));
-
-                authorEntity.getAuthoredBooks().add(authoredBook);
-            }
+            authorEntity.getAuthoredBooks().addAll(authoredBooks);
         }
 
         authorEntity = authorRepository.save(authorEntity);
         author = CustomObjectMapper.map(authorEntity);
 
-        return ResponseEntity.ok(author);
+        return ResponseEntity.ok().eTag(etag(authorEntity)).body(author);
     }
 
     @DeleteMapping("/{name}")
@@ -160,7 +294,7 @@ public class AuthorController {
 
         AuthorEntity authorEntity =
                 authorRepository
-                        .findByNameAndDeletedFalse(name)
+                        .findWithBooksByNameAndDeletedFalse(name)
                         .orElseThrow(
                                 () ->
                                         new IllegalArgumentException(
@@ -172,6 +306,13 @@ public class AuthorController {
         return ResponseEntity.ok(author);
     }
 
+    private static String etag(AuthorEntity authorEntity) {
+        return EntityTags.of(
+                authorEntity.getId(),
+                authorEntity.getVersion(),
+                EntityTags.versions(authorEntity.getAuthoredBooks(), BookEntity::getVersion));
+    }
+
     public static Specification<AuthorEntity> filter(@NonNull final Map<String, String> filter) {
 
         Boolean deleted = null;
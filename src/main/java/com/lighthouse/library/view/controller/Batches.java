@@ -0,0 +1,18 @@
+package com.lighthouse.library.view.controller;
+
+import java.util.List;
+
+/** Limits shared by the batch create endpoints. */
+final class Batches {
+
+    static final int MAX_ITEMS = 10_000;
+
+    private Batches() {}
+
+    static void checkSize(List<?> items) {
+        if (items.isEmpty() || items.size() > MAX_ITEMS) {
+            throw new IllegalArgumentException(
+                    "A batch should contain between 1 and " + MAX_ITEMS + " items");
+        }
+    }
+}
@@ -4,12 +4,17 @@ import static com.lighthouse.library.view.model.CustomObjectMapper.validateBookT
 
 import com.lighthouse.library.io.entity.BookEntity;
 import com.lighthouse.library.io.entity.GenreEntity;
-import com.lighthouse.library.io.repository.AuthorRepository;
 import com.lighthouse.library.io.repository.BookRepository;
-import com.lighthouse.library.io.repository.GenreRepository;
-import com.lighthouse.library.io.repository.LenderRepository;
-import com.lighthouse.library.io.repository.LibraryRepository;
+import com.lighthouse.library.io.repository.BookRow;
+import com.lighthouse.library.io.repository.ElementRow;
+import com.lighthouse.library.io.repository.ExportRepository;
+import com.lighthouse.library.io.repository.Listing;
+import com.lighthouse.library.io.repository.ListingRepository;
+import com.lighthouse.library.io.repository.ReferenceResolver;
+import com.lighthouse.library.io.repository.SortWhitelist;
+import com.lighthouse.library.io.repository.VersionStamp;
 import com.lighthouse.library.view.model.CustomObjectMapper;
+import com.lighthouse.library.view.model.response.BatchResult;
 import com.lighthouse.library.view.model.response.Book;
 import com.lighthouse.library.view.model.response.Genre;
 
@@ -17,10 +22,10 @@ import jakarta.persistence.criteria.Predicate;
 
 import lombok.NonNull;
 
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -30,33 +35,42 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/books")
 public class BookController {
 
+    static final SortWhitelist SORTABLE = SortWhitelist.of("title");
+
     private final BookRepository bookRepository;
-    private final GenreRepository genreRepository;
-    private final LibraryRepository libraryRepository;
-    private final AuthorRepository authorRepository;
-    private final LenderRepository lenderRepository;
+    private final ListingRepository listingRepository;
+    private final ExportRepository exportRepository;
+    private final ReferenceResolver referenceResolver;
+    private final SingleFlight singleFlight;
 
     public BookController(
             @NonNull BookRepository bookRepository,
-            @NonNull GenreRepository genreRepository,
-            @NonNull LibraryRepository libraryRepository,
-            @NonNull AuthorRepository authorRepository,
-            @NonNull LenderRepository lenderRepository) {
+            @NonNull ListingRepository listingRepository,
+            @NonNull ExportRepository exportRepository,
+            @NonNull ReferenceResolver referenceResolver,
+            @NonNull SingleFlight singleFlight) {
 
         this.bookRepository = bookRepository;
-        this.genreRepository = genreRepository;
-        this.libraryRepository = libraryRepository;
-        this.authorRepository = authorRepository;
-        this.lenderRepository = lenderRepository;
+        this.listingRepository = listingRepository;
+        this.exportRepository = exportRepository;
+        this.referenceResolver = referenceResolver;
+        this.singleFlight = singleFlight;
     }
 
     @GetMapping
@@ -64,20 +78,46 @@ public class BookController {
             @RequestParam Map<String, String> filters,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
-            @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder) {
-
-        Iterable<BookEntity> allBooks =
-                bookRepository.findAll(filter(filters), PageRequest.of(page, size));
+            @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "none") String total) {
+
+        Listing<BookRow> allBooks =
+                listingRepository.find(
+                        BookEntity.class,
+                        BookRow.class,
+                        BookRow.COLUMNS,
+                        filter(filters),
+                        SORTABLE.parse(sort, sortOrder),
+                        page,
+                        size,
+                        cursor,
+                        ListingRepository.Total.of(total));
+
+        Map<Long, List<ElementRow>> genres =
+                listingRepository.elements(BookEntity.class, "genres", "name", allBooks.items());
 
         List<Book> responseBooks = new ArrayList<>();
-        for (BookEntity bookEntity : allBooks) {
-            responseBooks.add(CustomObjectMapper.map(bookEntity));
+        for (BookRow bookRow : allBooks.items()) {
+            responseBooks.add(
+                    CustomObjectMapper.mapBook(
+                            bookRow, genres.getOrDefault(bookRow.getId(), List.of())));
         }
 
-        return ResponseEntity.ok(responseBooks);
+        return ResponseEntity.ok().headers(ListingHeaders.of(allBooks)).body(responseBooks);
+    }
+
+    /** Streams every book matching the filters as newline-delimited JSON, in id order. */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam Map<String, String> filters) {
+        return NdjsonExport.of(
+                exportRepository, BookEntity.class, filter(filters), CustomObjectMapper::map);
     }
 
     @PostMapping
+    @Transactional
     public ResponseEntity<Book> createBook(@RequestBody Book book) {
         BookEntity bookEntity = CustomObjectMapper.map(book);
 
@@ -86,50 +126,145 @@ public class BookController {
                     "A Book with a title already exists: " + bookEntity.getTitle());
         }
 
-        List<GenreEntity> genres = bookEntity.getGenres();
-
-        for (int i = 0; i < genres.size(); i++) {
-            GenreEntity mappedGenreEntity = genres.get(i);
-            GenreEntity genreEntity =
-                    genreRepository
-                            .findByNameAndDeletedFalse(mappedGenreEntity.getName())
-                            .orElseGet(() -> genreRepository.save(mappedGenreEntity));
-
-            genres.set(i, genreEntity);
+        List<String> genreNames = new ArrayList<>();
+        for (GenreEntity genreEntity : bookEntity.getGenres()) {
+            genreNames.add(genreEntity.getName());
         }
 
+        bookEntity.setGenres(referenceResolver.genres(genreNames));
+
         bookEntity = bookRepository.save(bookEntity);
         book = CustomObjectMapper.map(bookEntity);
 
         return ResponseEntity.ok(book);
     }
 
+    /**
+     * Creates up to {@value Batches#MAX_ITEMS} books in one transaction. Titles and genres are
+     * looked up once for the whole batch and the rows are inserted in JDBC batches. An item that
+     * can't be created is reported in its result and doesn't stop the others.
+     */
+    @PostMapping("/batch")
+    @Transactional
+    public ResponseEntity<List<BatchResult<Book>>> createBooks(@RequestBody List<Book> books) {
+        Batches.checkSize(books);
+
+        List<BatchResult<Book>> results = new ArrayList<>(Collections.nCopies(books.size(), null));
+        Map<Integer, BookEntity> accepted = new LinkedHashMap<>();
+        Set<String> titles = new HashSet<>();
+
+        for (int i = 0; i < books.size(); i++) {
+            try {
+                BookEntity bookEntity = CustomObjectMapper.map(books.get(i));
+
+                if (!titles.add(bookEntity.getTitle())) {
+                    throw new IllegalArgumentException(
+                            "A Book with the title is already in the batch: "
+                                    + bookEntity.getTitle());
+                }
+
+                accepted.put(i, bookEntity);
+            } catch (IllegalArgumentException e) {
+                results.set(i, BatchResult.rejected(i, e.getMessage()));
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            Set<String> existingTitles = bookRepository.findLiveTitles(titles);
+            Set<String> genreNames = new HashSet<>();
+
+            for (Iterator<Map.Entry<Integer, BookEntity>> it = accepted.entrySet().iterator();
+                    it.hasNext(); ) {
+                Map.Entry<Integer, BookEntity> entry = it.next();
+                String title = entry.getValue().getTitle();
+
+                if (existingTitles.contains(title)) {
+                    results.set(
+                            entry.getKey(),
+                            BatchResult.rejected(
+                                    entry.getKey(),
+                                    "A Book with a title already exists: " + title));
+                    it.remove();
+                    continue;
+                }
+
+                for (GenreEntity genreEntity : entry.getValue().getGenres()) {
+                    genreNames.add(genreEntity.getName());
+                }
+            }
+
+            Map<String, GenreEntity> genresByName =
+                    referenceResolver.findOrCreateGenres(genreNames);
+
+            for (BookEntity bookEntity : accepted.values()) {
+                List<GenreEntity> genres = bookEntity.getGenres();
+
+                for (int i = 0; i < genres.size(); i++) {
+                    genres.set(i, genresByName.get(genres.get(i).getName()));
+                }
+            }
+
+            bookRepository.saveAll(accepted.values());
+
+            for (Map.Entry<Integer, BookEntity> entry : accepted.entrySet()) {
+                results.set(
+                        entry.getKey(),
+                        BatchResult.created(
+                                entry.getKey(), CustomObjectMapper.map(entry.getValue())));
+            }
+        }
+
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/{title}")
-    public ResponseEntity<Book> getBook(@PathVariable String title) {
-        BookEntity bookEntity =
+    public ResponseEntity<Book> getBook(@PathVariable String title, WebRequest request) {
+        VersionStamp stamp =
                 bookRepository
-                        .findByTitleAndDeletedFalse(title)
+                        .findVersionByTitle(title)
                         .orElseThrow(
                                 () ->
                                         new IllegalArgumentException(
                                                 "Couldn't find a book with the title: " + title));
 
-        Book book = CustomObjectMapper.map(bookEntity);
+        if (request.checkNotModified(EntityTags.of(stamp))) {
+            return null;
+        }
 
-        return ResponseEntity.ok(book);
+        SingleFlight.Loaded<Book> book = singleFlight.load("books", title, () -> load(title));
+
+        return ResponseEntity.ok().eTag(book.etag()).body(book.body());
+    }
+
+    private SingleFlight.Loaded<Book> load(String title) {
+        BookEntity bookEntity =
+                bookRepository
+                        .findWithGenresByTitleAndDeletedFalse(title)
+                        .orElseThrow(
+                                () ->
+                                        new IllegalArgumentException(
+                                                "Couldn't find a book with the title: " + title));
+
+        return new SingleFlight.Loaded<>(CustomObjectMapper.map(bookEntity), etag(bookEntity));
     }
 
     @PatchMapping("/{title}")
-    public ResponseEntity<Book> updateBook(@PathVariable String title, @RequestBody Book book) {
+    @Transactional
+    public ResponseEntity<Book> updateBook(
+            @PathVariable String title, @RequestBody Book book, WebRequest request) {
 
         BookEntity bookEntity =
                 bookRepository
-                        .findByTitleAndDeletedFalse(title)
+                        .findWithGenresByTitleAndDeletedFalse(title)
                         .orElseThrow(
                                 () ->
                                         new IllegalArgumentException(
                                                 "Couldn't find a book with the title: " + title));
 
+        if (request.checkNotModified(etag(bookEntity))) {
+            return null;
+        }
+
         if (book.getTitle() != null) {
             validateBookTitle(book.getTitle());
 
@@ -142,23 +277,20 @@ public class BookController {
         }
 
         if (!book.getGenres().isEmpty()) {
-            bookEntity.getGenres().clear();
-
+            List<String> genreNames = new ArrayList<>();
             for (Genre genre : book.getGenres()) {
-                GenreEntity mappedGenreEntity = CustomObjectMapper.map(genre);
-                GenreEntity genreEntity =
-                        genreRepository
-                                .findByNameAndDeletedFalse(mappedGenreEntity.getName())
-                                .orElseGet(() -> genreRepository.save(mappedGenreEntity));
-
-                bookEntity.getGenres().add(genreEntity);
+                genreNames.add(CustomObjectMapper.map(genre).getName());
             }
+
+            List<GenreEntity> genres = referenceResolver.genres(genreNames);
+            bookEntity.getGenres().clear();
+            bookEntity.getGenres().addAll(genres);
         }
 
         bookEntity = bookRepository.save(bookEntity);
         book = CustomObjectMapper.map(bookEntity);
 
-        return ResponseEntity.ok(book);
+        return ResponseEntity.ok().eTag(etag(bookEntity)).body(book);
     }
 
     @DeleteMapping("/{title}")
@@ -166,22 +298,16 @@ public class BookController {
 
         BookEntity bookEntity =
                 bookRepository
-                        .findByTitleAndDeletedFalse(title)
+                        .findWithGenresByTitleAndDeletedFalse(title)
                         .orElseThrow(
                                 () ->
                                         new IllegalArgumentException(
                                                 "Couldn't find a book with the title: " + title));
 
-        if (libraryRepository.existsByBooks(bookEntity)) {
-            throw new IllegalArgumentException("The book is referenced by a library");
-        }
-
-        if (authorRepository.existsByAuthoredBooks(bookEntity)) {
-            throw new IllegalArgumentException("The book is referenced by an author");
-        }
-
-        if (lenderRepository.existsByLendedBooks(bookEntity)) {
-            throw new IllegalArgumentException("The book is referenced by a lender");
+        List<String> referencedBy = bookRepository.findReferencedBy(bookEntity.getId());
+        if (!referencedBy.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "The book is referenced by: " + String.join(", ", referencedBy));
         }
 
         bookRepository.delete(bookEntity);
@@ -191,6 +317,13 @@ public class BookController {
         return ResponseEntity.ok(book);
     }
 
+    private static String etag(BookEntity bookEntity) {
+        return EntityTags.of(
+                bookEntity.getId(),
+                bookEntity.getVersion(),
+                EntityTags.versions(bookEntity.getGenres(), GenreEntity::getVersion));
+    }
+
     public static Specification<BookEntity> filter(@NonNull final Map<String, String> filter) {
 
         Boolean deleted = null;
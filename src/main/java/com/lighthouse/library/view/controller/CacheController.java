@@ -0,0 +1,60 @@
+package com.lighthouse.library.view.controller;
+
+import com.lighthouse.library.view.model.response.CacheRegion;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import lombok.NonNull;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/** CacheController */
+@RestController
+@RequestMapping("/cache")
+public class CacheController {
+
+    static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+    private final Statistics statistics;
+
+    public CacheController(@NonNull EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheRegion>> getCacheStats() {
+        Set<String> regionNames =
+                new TreeSet<>(List.of(statistics.getSecondLevelCacheRegionNames()));
+        regionNames.add(QUERY_RESULTS_REGION);
+
+        List<CacheRegion> regions = new ArrayList<>();
+        for (String regionName : regionNames) {
+            CacheRegionStatistics regionStatistics =
+                    statistics.getCacheRegionStatistics(regionName);
+
+            if (regionStatistics == null) {
+                continue;
+            }
+
+            CacheRegion region = new CacheRegion();
+            region.setRegion(regionName);
+            region.setHits(regionStatistics.getHitCount());
+            region.setMisses(regionStatistics.getMissCount());
+            region.setPuts(regionStatistics.getPutCount());
+            regions.add(region);
+        }
+
+        return ResponseEntity.ok(regions);
+    }
+}
@@ -0,0 +1,32 @@
+package com.lighthouse.library.view.controller;
+
+import com.lighthouse.library.io.repository.VersionStamp;
+
+import java.util.Collection;
+import java.util.function.ToLongFunction;
+
+/**
+ * Strong ETags of the single-entity responses. A GET is answered with 304 from the version stamp
+ * alone, and a PATCH carrying an If-Match with an outdated tag is refused with 412.
+ */
+final class EntityTags {
+
+    private EntityTags() {}
+
+    static String of(VersionStamp stamp) {
+        return stamp.id() + "-" + stamp.version() + "-" + stamp.dependencies();
+    }
+
+    static String of(Long id, Long version, long dependencies) {
+        return of(new VersionStamp(id, version, dependencies));
+    }
+
+    static <T> long versions(Collection<T> entities, ToLongFunction<T> version) {
+        long sum = 0;
+        for (T entity : entities) {
+            sum += version.applyAsLong(entity);
+        }
+
+        return sum;
+    }
+}
@@ -3,19 +3,24 @@ package com.lighthouse.library.view.controller;
 import static com.lighthouse.library.view.model.CustomObjectMapper.validateGenre;
 
 import com.lighthouse.library.io.entity.GenreEntity;
-import com.lighthouse.library.io.repository.BookRepository;
 import com.lighthouse.library.io.repository.GenreRepository;
+import com.lighthouse.library.io.repository.Listing;
+import com.lighthouse.library.io.repository.ListingRepository;
+import com.lighthouse.library.io.repository.NamedRow;
+import com.lighthouse.library.io.repository.ReferenceResolver;
+import com.lighthouse.library.io.repository.SortWhitelist;
 import com.lighthouse.library.view.model.CustomObjectMapper;
+import com.lighthouse.library.view.model.response.BatchResult;
 import com.lighthouse.library.view.model.response.Genre;
 
 import jakarta.persistence.criteria.Predicate;
 
 import lombok.NonNull;
 
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -27,20 +32,33 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/genres")
 public class GenreController {
 
+    static final SortWhitelist SORTABLE = SortWhitelist.of("name");
+
     private final GenreRepository genreRepository;
-    private final BookRepository bookRepository;
+    private final ListingRepository listingRepository;
+    private final ReferenceResolver referenceResolver;
+    private final SingleFlight singleFlight;
 
     public GenreController(
-            @NonNull GenreRepository genreRepository, @NonNull BookRepository bookRepository) {
+            @NonNull GenreRepository genreRepository,
+            @NonNull ListingRepository listingRepository,
+            @NonNull ReferenceResolver referenceResolver,
+            @NonNull SingleFlight singleFlight) {
         this.genreRepository = genreRepository;
-        this.bookRepository = bookRepository;
+        this.listingRepository = listingRepository;
+        this.referenceResolver = referenceResolver;
+        this.singleFlight = singleFlight;
     }
 
     @GetMapping
@@ -48,16 +66,28 @@ public class GenreController {
             @RequestParam Map<String, String> filters,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
-            @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder) {
-        Iterable<GenreEntity> allGenres =
-                genreRepository.findAll(filter(filters), PageRequest.of(page, size));
+            @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "none") String total) {
+        Listing<NamedRow> allGenres =
+                listingRepository.find(
+                        GenreEntity.class,
+                        NamedRow.class,
+                        NamedRow.COLUMNS,
+                        filter(filters),
+                        SORTABLE.parse(sort, sortOrder),
+                        page,
+                        size,
+                        cursor,
+                        ListingRepository.Total.of(total));
 
         List<Genre> responseGenres = new ArrayList<>();
-        for (GenreEntity genreEntity : allGenres) {
-            responseGenres.add(CustomObjectMapper.map(genreEntity));
+        for (NamedRow genreRow : allGenres.items()) {
+            responseGenres.add(CustomObjectMapper.mapGenre(genreRow));
         }
 
-        return ResponseEntity.ok(responseGenres);
+        return ResponseEntity.ok().headers(ListingHeaders.of(allGenres)).body(responseGenres);
     }
 
     @PostMapping
@@ -69,14 +99,93 @@ public class GenreController {
                     "A genre with a name already exists: " + genreEntity.getName());
         }
 
-        genreEntity = genreRepository.save(genreEntity);
+        // A genre may also be created concurrently as a side effect of saving a book.
+        String name = genreEntity.getName();
+        genreEntity = referenceResolver.findOrCreateGenres(List.of(name)).get(name);
         genre = CustomObjectMapper.map(genreEntity);
 
         return ResponseEntity.ok(genre);
     }
 
+    /**
+     * Creates up to {@value Batches#MAX_ITEMS} genres in one transaction. Names are looked up once
+     * for the whole batch and the rows are inserted in JDBC batches. An item that can't be created
+     * is reported in its result and doesn't stop the others.
+     */
+    @PostMapping("/batch")
+    @Transactional
+    public ResponseEntity<List<BatchResult<Genre>>> createGenres(@RequestBody List<Genre> genres) {
+        Batches.checkSize(genres);
+
+        List<BatchResult<Genre>> results =
+                new ArrayList<>(Collections.nCopies(genres.size(), null));
+        Map<Integer, GenreEntity> accepted = new LinkedHashMap<>();
+        Set<String> names = new HashSet<>();
+
+        for (int i = 0; i < genres.size(); i++) {
+            try {
+                GenreEntity genreEntity = CustomObjectMapper.map(genres.get(i));
+
+                if (!names.add(genreEntity.getName())) {
+                    throw new IllegalArgumentException(
+                            "A genre with the name is already in the batch: "
+                                    + genreEntity.getName());
+                }
+
+                accepted.put(i, genreEntity);
+            } catch (IllegalArgumentException e) {
+                results.set(i, BatchResult.rejected(i, e.getMessage()));
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            Set<String> existingNames = new HashSet<>();
+            for (GenreEntity genreEntity : genreRepository.findByNameInAndDeletedFalse(names)) {
+                existingNames.add(genreEntity.getName());
+            }
+
+            accepted.entrySet()
+                    .removeIf(
+                            entry -> {
+                                String name = entry.getValue().getName();
+                                if (!existingNames.contains(name)) {
+                                    return false;
+                                }
+
+                                results.set(
+                                        entry.getKey(),
+                                        BatchResult.rejected(
+                                                entry.getKey(),
+                                                "A genre with a name already exists: " + name));
+                                return true;
+                            });
+
+            Set<String> newNames = new HashSet<>();
+            for (GenreEntity genreEntity : accepted.values()) {
+                newNames.add(genreEntity.getName());
+            }
+
+            Map<String, GenreEntity> genresByName = referenceResolver.findOrCreateGenres(newNames);
+
+            for (Map.Entry<Integer, GenreEntity> entry : accepted.entrySet()) {
+                GenreEntity genreEntity = genresByName.get(entry.getValue().getName());
+                results.set(
+                        entry.getKey(),
+                        BatchResult.created(entry.getKey(), CustomObjectMapper.map(genreEntity)));
+            }
+        }
+
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/{name}")
     public ResponseEntity<Genre> getGenre(@PathVariable String name) {
+        SingleFlight.Loaded<Genre> genre = singleFlight.load("genres", name, () -> load(name));
+
+        return ResponseEntity.ok(genre.body());
+    }
+
+    private SingleFlight.Loaded<Genre> load(String name) {
         GenreEntity genreEntity =
                 genreRepository
                         .findByNameAndDeletedFalse(name)
@@ -85,9 +194,7 @@ public class GenreController {
                                         new IllegalArgumentException(
                                                 "Couldn't find a genre with the name: " + name));
 
-        Genre genre = CustomObjectMapper.map(genreEntity);
-
-        return ResponseEntity.ok(genre);
+        return new SingleFlight.Loaded<>(CustomObjectMapper.map(genreEntity), null);
     }
 
     @PatchMapping("/{name}")
@@ -129,8 +236,10 @@ public class GenreController {
                                         new IllegalArgumentException(
                                                 "Couldn't find a genre with the name: " + name));
 
-        if (bookRepository.existsByGenresAndDeletedFalse(genreEntity)) {
-            throw new IllegalArgumentException("The genre is referenced by a book");
+        List<String> referencedBy = genreRepository.findReferencedBy(genreEntity.getId());
+        if (!referencedBy.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "The genre is referenced by: " + String.join(", ", referencedBy));
         }
 
         genreEntity.setDeleted(true);
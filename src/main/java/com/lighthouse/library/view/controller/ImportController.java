@@ -0,0 +1,243 @@
+package com.lighthouse.library.view.controller;
+
+import static com.lighthouse.library.view.model.CustomObjectMapper.validateBookTitle;
+import static com.lighthouse.library.view.model.CustomObjectMapper.validateGenre;
+import static com.lighthouse.library.view.model.CustomObjectMapper.validateName;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.lighthouse.library.io.repository.ImportRepository;
+import com.lighthouse.library.view.model.response.ImportRow;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports books together with their genres and authors from CSV or newline-delimited JSON. The
+ * body is parsed one row at a time and written in chunks of {@value #CHUNK_SIZE} rows, so memory
+ * doesn't depend on the size of the upload. The response is newline-delimited JSON as well: one
+ * line per rejected row, a progress line per chunk and a summary line at the end.
+ *
+ * <p>CSV needs a header row with the columns title, genres and authors, where genres and authors
+ * are separated by {@code ;}.
+ */
+@RestController
+@RequestMapping("/import")
+@Slf4j
+public class ImportController {
+
+    static final int CHUNK_SIZE = 1000;
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final ObjectReader CSV_READER =
+            new CsvMapper()
+                    .readerFor(ImportRow.class)
+                    .with(CsvSchema.emptySchema().withHeader().withArrayElementSeparator(";"))
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static final ObjectReader NDJSON_READER =
+            new ObjectMapper()
+                    .readerFor(ImportRow.class)
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static final JsonFactory REPORT_FACTORY = new JsonFactory();
+
+    private final ImportRepository importRepository;
+
+    public ImportController(@NonNull ImportRepository importRepository) {
+        this.importRepository = importRepository;
+    }
+
+    @PostMapping(consumes = {TEXT_CSV_VALUE, NdjsonExport.APPLICATION_NDJSON_VALUE})
+    public void importBooks(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        boolean csv =
+                MediaType.parseMediaType(request.getContentType())
+                        .isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE));
+        ObjectReader reader = csv ? CSV_READER : NDJSON_READER;
+
+        response.setContentType(NdjsonExport.APPLICATION_NDJSON_VALUE);
+
+        try (MappingIterator<ImportRow> rows = reader.readValues(request.getInputStream());
+                JsonGenerator report = REPORT_FACTORY.createGenerator(response.getOutputStream())) {
+            report.setRootValueSeparator(null);
+
+            Progress progress = new Progress(report);
+            List<ImportRepository.Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            Set<String> chunkTitles = new HashSet<>();
+
+            while (true) {
+                ImportRow importRow;
+
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+
+                    progress.read++;
+                    importRow = rows.nextValue();
+                } catch (DatabindException e) {
+                    // The iterator skips the rest of the row and continues with the next one.
+                    progress.reject(progress.read, e.getOriginalMessage());
+                    continue;
+                } catch (JsonProcessingException e) {
+                    progress.reject(
+                            progress.read, "The input is malformed: " + e.getOriginalMessage());
+                    break;
+                }
+
+                ImportRepository.Row row;
+                try {
+                    row = validate(progress.read, importRow);
+                } catch (IllegalArgumentException e) {
+                    progress.reject(progress.read, e.getMessage());
+                    continue;
+                }
+
+                if (!chunkTitles.add(row.title())) {
+                    progress.reject(
+                            row.number(),
+                            "A Book with the title is already in the import: " + row.title());
+                    continue;
+                }
+
+                chunk.add(row);
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, progress);
+                    chunk.clear();
+                    chunkTitles.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, progress);
+            }
+
+            progress.summary();
+        }
+    }
+
+    private void writeChunk(List<ImportRepository.Row> chunk, Progress progress)
+            throws IOException {
+        Map<Integer, String> rejected;
+
+        try {
+            rejected = importRepository.importChunk(chunk);
+        } catch (DataAccessException e) {
+            log.warn("Couldn't import a chunk of {} rows", chunk.size(), e);
+
+            for (ImportRepository.Row row : chunk) {
+                progress.reject(row.number(), "The chunk of the row couldn't be written");
+            }
+
+            progress.report();
+            return;
+        }
+
+        for (Map.Entry<Integer, String> entry : rejected.entrySet()) {
+            progress.reject(entry.getKey(), entry.getValue());
+        }
+
+        progress.imported += chunk.size() - rejected.size();
+        progress.report();
+    }
+
+    private static ImportRepository.Row validate(int number, ImportRow importRow) {
+        validateBookTitle(importRow.getTitle());
+
+        List<String> genres = names(importRow.getGenres());
+        for (String genre : genres) {
+            validateGenre(genre);
+        }
+
+        List<String> authors = names(importRow.getAuthors());
+        for (String author : authors) {
+            validateName(author);
+        }
+
+        return new ImportRepository.Row(number, importRow.getTitle(), genres, authors);
+    }
+
+    /** Drops the blank names an empty CSV cell leaves behind, and duplicates. */
+    private static List<String> names(List<String> names) {
+        Set<String> distinct = new LinkedHashSet<>();
+
+        if (names != null) {
+            for (String name : names) {
+                if (name != null && !name.isBlank()) {
+                    distinct.add(name.trim());
+                }
+            }
+        }
+
+        return new ArrayList<>(distinct);
+    }
+
+    /** Counts the rows of an import and writes the report lines. */
+    private static final class Progress {
+        private final JsonGenerator report;
+        private int read;
+        private int imported;
+        private int rejected;
+
+        private Progress(JsonGenerator report) {
+            this.report = report;
+        }
+
+        private void reject(int row, String error) throws IOException {
+            rejected++;
+
+            report.writeStartObject();
+            report.writeNumberField("row", row);
+            report.writeStringField("error", error);
+            report.writeEndObject();
+            report.writeRaw('\n');
+        }
+
+        private void report() throws IOException {
+            writeCounts(false);
+            report.flush();
+        }
+
+        private void summary() throws IOException {
+            writeCounts(true);
+            report.flush();
+        }
+
+        private void writeCounts(boolean done) throws IOException {
+            report.writeStartObject();
+            report.writeNumberField("rows", read);
+            report.writeNumberField("imported", imported);
+            report.writeNumberField("rejected", rejected);
+            report.writeBooleanField("done", done);
+            report.writeEndObject();
+            report.writeRaw('\n');
+        }
+    }
+}
@@ -4,9 +4,14 @@ import static com.lighthouse.library.view.model.CustomObjectMapper.validateName;
 
 import com.lighthouse.library.io.entity.BookEntity;
 import com.lighthouse.library.io.entity.LenderEntity;
-import com.lighthouse.library.io.repository.BookRepository;
+import com.lighthouse.library.io.repository.ElementRow;
+import com.lighthouse.library.io.repository.ExportRepository;
 import com.lighthouse.library.io.repository.LenderRepository;
-import com.lighthouse.library.io.repository.LibraryRepository;
+import com.lighthouse.library.io.repository.Listing;
+import com.lighthouse.library.io.repository.ListingRepository;
+import com.lighthouse.library.io.repository.NamedRow;
+import com.lighthouse.library.io.repository.ReferenceResolver;
+import com.lighthouse.library.io.repository.SortWhitelist;
 import com.lighthouse.library.view.model.CustomObjectMapper;
 import com.lighthouse.library.view.model.response.Lender;
 
@@ -14,7 +19,6 @@ import jakarta.persistence.criteria.Predicate;
 
 import lombok.NonNull;
 
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +31,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -36,17 +41,25 @@ import java.util.Map;
 @RequestMapping("/lenders")
 public class LenderController {
 
+    static final SortWhitelist SORTABLE = SortWhitelist.of("name");
+
     private final LenderRepository lenderRepository;
-    private final BookRepository bookRepository;
-    private final LibraryRepository libraryRepository;
+    private final ListingRepository listingRepository;
+    private final ExportRepository exportRepository;
+    private final ReferenceResolver referenceResolver;
+    private final SingleFlight singleFlight;
 
     public LenderController(
             @NonNull LenderRepository lenderRepository,
-            @NonNull BookRepository bookRepository,
-            @NonNull LibraryRepository libRepository) {
+            @NonNull ListingRepository listingRepository,
+            @NonNull ExportRepository exportRepository,
+            @NonNull ReferenceResolver referenceResolver,
+            @NonNull SingleFlight singleFlight) {
         this.lenderRepository = lenderRepository;
-        this.bookRepository = bookRepository;
-        this.libraryRepository = libRepository;
+        this.listingRepository = listingRepository;
+        this.exportRepository = exportRepository;
+        this.referenceResolver = referenceResolver;
+        this.singleFlight = singleFlight;
     }
 
     @GetMapping
@@ -54,17 +67,43 @@ public class LenderController {
             @RequestParam Map<String, String> filters,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
-            @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder) {
-
-        Iterable<LenderEntity> allLenders =
-                lenderRepository.findAll(filter(filters), PageRequest.of(page, size));
+            @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "none") String total) {
+
+        Listing<NamedRow> allLenders =
+                listingRepository.find(
+                        LenderEntity.class,
+                        NamedRow.class,
+                        NamedRow.COLUMNS,
+                        filter(filters),
+                        SORTABLE.parse(sort, sortOrder),
+                        page,
+                        size,
+                        cursor,
+                        ListingRepository.Total.of(total));
+
+        Map<Long, List<ElementRow>> lendedBooks =
+                listingRepository.elements(
+                        LenderEntity.class, "lendedBooks", "title", allLenders.items());
 
         List<Lender> responseLenders = new ArrayList<>();
-        for (LenderEntity lenderEntity : allLenders) {
-            responseLenders.add(CustomObjectMapper.map(lenderEntity));
+        for (NamedRow lenderRow : allLenders.items()) {
+            responseLenders.add(
+                    CustomObjectMapper.mapLender(
+                            lenderRow, lendedBooks.getOrDefault(lenderRow.getId(), List.of())));
         }
 
-        return ResponseEntity.ok(responseLenders);
+        return ResponseEntity.ok().headers(ListingHeaders.of(allLenders)).body(responseLenders);
+    }
+
+    /** Streams every lender matching the filters as newline-delimited JSON, in id order. */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLenders(
+            @RequestParam Map<String, String> filters) {
+        return NdjsonExport.of(
+                exportRepository, LenderEntity.class, filter(filters), CustomObjectMapper::map);
     }
 
     @PostMapping
@@ -76,20 +115,7 @@ public class LenderController {
                     "A lender with the name already exists: " + lenderEntity.getName());
         }
 
-        ArrayList<BookEntity> books = new ArrayList<BookEntity>();
-        for (String bookTitle : lender.getLendedBooks()) {
-            BookEntity book =
-                    bookRepository
-                            .findByTitleAndDeletedFalse(bookTitle)
-                            .orElseThrow(
-                                    () ->
-                                            new IllegalArgumentException(
-                                                    "Couldn't find a book with the title: "
-                                                            + bookTitle));
-            books.add(book);
-        }
-
-        lenderEntity.setLendedBooks(books);
+        lenderEntity.setLendedBooks(referenceResolver.books(lender.getLendedBooks()));
         lenderEntity = lenderRepository.save(lenderEntity);
         lender = CustomObjectMapper.map(lenderEntity);
 
@@ -98,17 +124,21 @@ public class LenderController {
 
     @GetMapping("/{name}")
     public ResponseEntity<Lender> getLender(@PathVariable String name) {
+        SingleFlight.Loaded<Lender> lender = singleFlight.load("lenders", name, () -> load(name));
+
+        return ResponseEntity.ok(lender.body());
+    }
+
+    private SingleFlight.Loaded<Lender> load(String name) {
         LenderEntity lenderEntity =
                 lenderRepository
-                        .findByNameAndDeletedFalse(name)
+                        .findWithBooksByNameAndDeletedFalse(name)
                         .orElseThrow(
                                 () ->
                                         new IllegalArgumentException(
                                                 "Couldn't find a lender with the name: " + name));
 
-        Lender lender = CustomObjectMapper.map(lenderEntity);
-
-        return ResponseEntity.ok(lender);
+        return new SingleFlight.Loaded<>(CustomObjectMapper.map(lenderEntity), null);
     }
 
     @PatchMapping("/{name}")
@@ -117,7 +147,7 @@ public class LenderController {
 
         LenderEntity lenderEntity =
                 lenderRepository
-                        .findByNameAndDeletedFalse(name)
+                        .findWithBooksByNameAndDeletedFalse(name)
                         .orElseThrow(
                                 () ->
                                         new IllegalArgumentException(
@@ -135,20 +165,9 @@ public class LenderController {
         }
 
         if (!lender.getLendedBooks().isEmpty()) {
+            List<BookEntity> lendedBooks = referenceResolver.books(lender.getLendedBooks());
             lenderEntity.getLendedBooks().clear();
-
-            for (String bookTitle : lender.getLendedBooks()) {
-                BookEntity authoredBook =
-                        bookRepository
-                                .findByTitleAndDeletedFalse(bookTitle)
-                                .orElseThrow(
-                                        () ->
-                                                new IllegalArgumentException(
-                                                        "A Book with the title doesn't exist: "
-                                                                + bookTitle));
-
-                lenderEntity.getLendedBooks().add(authoredBook);
-            }
+            lenderEntity.getLendedBooks().addAll(lendedBooks);
         }
 
         lenderEntity = lenderRepository.save(lenderEntity);
@@ -162,14 +181,16 @@ public class LenderController {
 
         LenderEntity lenderEntity =
                 lenderRepository
-                        .findByNameAndDeletedFalse(name)
+                        .findWithBooksByNameAndDeletedFalse(name)
                         .orElseThrow(
                                 () ->
                                         new IllegalArgumentException(
                                                 "Couldn't find a lender with the name: " + name));
 
-        if (libraryRepository.existsByLenders(lenderEntity)) {
-            throw new IllegalArgumentException("The lender is referenced by a library");
+        List<String> referencedBy = lenderRepository.findReferencedBy(lenderEntity.getId());
+        if (!referencedBy.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "The lender is referenced by: " + String.join(", ", referencedBy));
         }
 
         lenderEntity.setDeleted(true);
@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
@@ -17,13 +16,21 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.lighthouse.library.io.entity.BookEntity;
 import com.lighthouse.library.io.entity.LenderEntity;
 import com.lighthouse.library.io.entity.LibraryEntity;
-import com.lighthouse.library.io.repository.BookRepository;
-import com.lighthouse.library.io.repository.LenderRepository;
+import com.lighthouse.library.io.repository.ElementRow;
+import com.lighthouse.library.io.repository.ExportRepository;
 import com.lighthouse.library.io.repository.LibraryRepository;
+import com.lighthouse.library.io.repository.Listing;
+import com.lighthouse.library.io.repository.ListingRepository;
+import com.lighthouse.library.io.repository.NamedRow;
+import com.lighthouse.library.io.repository.ReferenceResolver;
+import com.lighthouse.library.io.repository.SortWhitelist;
+import com.lighthouse.library.io.repository.VersionStamp;
 import com.lighthouse.library.view.model.CustomObjectMapper;
 import com.lighthouse.library.view.model.response.Library;
 
@@ -34,17 +41,25 @@ import lombok.NonNull;
 @RequestMapping("/libraries")
 public class LibraryController {
 
+    static final SortWhitelist SORTABLE = SortWhitelist.of("name");
+
     private final LibraryRepository libraryRepository;
-    private final LenderRepository lenderRepository;
-    private final BookRepository bookRepository;
+    private final ListingRepository listingRepository;
+    private final ExportRepository exportRepository;
+    private final ReferenceResolver referenceResolver;
+    private final SingleFlight singleFlight;
 
     public LibraryController(
-            @NonNull LenderRepository lenderRepository, 
             @NonNull LibraryRepository libraryRepository,
-            @NonNull BookRepository bookRepository) {
-        this.lenderRepository = lenderRepository;
+            @NonNull ListingRepository listingRepository,
+            @NonNull ExportRepository exportRepository,
+            @NonNull ReferenceResolver referenceResolver,
+            @NonNull SingleFlight singleFlight) {
         this.libraryRepository = libraryRepository;
-        this.bookRepository = bookRepository;
+        this.listingRepository = listingRepository;
+        this.exportRepository = exportRepository;
+        this.referenceResolver = referenceResolver;
+        this.singleFlight = singleFlight;
     }
 
 
@@ -53,16 +68,48 @@ public class LibraryController {
             @RequestParam Map<String, String> filters,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
-            @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder) {
-
-        Iterable<LibraryEntity> allLibraries = libraryRepository.findAll(filter(filters), PageRequest.of(page, size));
+            @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "none") String total) {
+
+        Listing<NamedRow> allLibraries =
+                listingRepository.find(
+                        LibraryEntity.class,
+                        NamedRow.class,
+                        NamedRow.COLUMNS,
+                        filter(filters),
+                        SORTABLE.parse(sort, sortOrder),
+                        page,
+                        size,
+                        cursor,
+                        ListingRepository.Total.of(total));
+
+        Map<Long, List<ElementRow>> books =
+                listingRepository.elements(
+                        LibraryEntity.class, "books", "title", allLibraries.items());
+        Map<Long, List<ElementRow>> lenders =
+                listingRepository.elements(
+                        LibraryEntity.class, "lenders", "name", allLibraries.items());
 
         List<Library> libraries = new ArrayList<>();
-        for (LibraryEntity lenderEntity : allLibraries) {
-            libraries.add(CustomObjectMapper.map(lenderEntity));
+        for (NamedRow libraryRow : allLibraries.items()) {
+            libraries.add(
+                    CustomObjectMapper.mapLibrary(
+                            libraryRow,
+                            books.getOrDefault(libraryRow.getId(), List.of()),
+                            lenders.getOrDefault(libraryRow.getId(), List.of())));
         }
 
-        return ResponseEntity.ok(libraries);
+        return ResponseEntity.ok().headers(ListingHeaders.of(allLibraries)).body(libraries);
+    }
+
+    /** Streams every library matching the filters as newline-delimited JSON, in id order. */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLibraries(
+            @RequestParam Map<String, String> filters) {
+        return NdjsonExport.of(
+                exportRepository, LibraryEntity.class, filter(filters), CustomObjectMapper::map);
     }
 
     @PostMapping
@@ -74,62 +121,64 @@ public class LibraryController {
                     "A library with the name already exists: " + libraryEntity.getName());
         }
 
-        ArrayList<BookEntity> books = new ArrayList<BookEntity>(); 
-        ArrayList<LenderEntity> lenders = new ArrayList<>(); 
-        libraryEntity.setBooks(books);
-        libraryEntity.setLenders(lenders);
+        libraryEntity.setBooks(referenceResolver.books(library.getBooks()));
+        libraryEntity.setLenders(referenceResolver.lenders(library.getLenders()));
 
-        for (String bookTitle : library.getBooks()) {
-            BookEntity book = bookRepository.findByTitleAndDeletedFalse(bookTitle)
-                        .orElseThrow(
-                                () ->
-                                        new IllegalArgumentException(
-                                                "Couldn't find a book with the title: " + bookTitle));
-            books.add(book);
-        }
+        libraryEntity = libraryRepository.save(libraryEntity);
+        library = CustomObjectMapper.map(libraryEntity);
+
+        return ResponseEntity.ok(library);
+    }
 
-        for (String lenderName : library.getLenders()) {
-            LenderEntity lender = lenderRepository.findByNameAndDeletedFalse(lenderName)
+    @GetMapping("/{name}")
+    public ResponseEntity<Library> getLibrary(@PathVariable String name, WebRequest request) {
+        VersionStamp stamp =
+                libraryRepository
+                        .findVersionByName(name)
                         .orElseThrow(
                                 () ->
                                         new IllegalArgumentException(
-                                                "Couldn't find a lender with the name: " + lenderName));
-            lenders.add(lender);
+                                                "Couldn't find a library with the name: " + name));
+
+        if (request.checkNotModified(EntityTags.of(stamp))) {
+            return null;
         }
 
-        libraryEntity = libraryRepository.save(libraryEntity);
-        library = CustomObjectMapper.map(libraryEntity);
+        SingleFlight.Loaded<Library> library =
+                singleFlight.load("libraries", name, () -> load(name));
 
-        return ResponseEntity.ok(library);
+        return ResponseEntity.ok().eTag(library.etag()).body(library.body());
     }
 
-    @GetMapping("/{name}")
-    public ResponseEntity<Library> getLibrary(@PathVariable String name) {
+    private SingleFlight.Loaded<Library> load(String name) {
         LibraryEntity libraryEntity =
                 libraryRepository
-                        .findByNameAndDeletedFalse(name)
+                        .findWithBooksByNameAndDeletedFalse(name)
                         .orElseThrow(
                                 () ->
                                         new IllegalArgumentException(
                                                 "Couldn't find a library with the name: " + name));
 
-        Library lender = CustomObjectMapper.map(libraryEntity);
-
-        return ResponseEntity.ok(lender);
+        return new SingleFlight.Loaded<>(
+                CustomObjectMapper.map(libraryEntity), etag(libraryEntity));
     }
 
     @PatchMapping("/{name}")
     public ResponseEntity<Library> updateLibrary(
-            @PathVariable String name, @RequestBody Library library) {
+            @PathVariable String name, @RequestBody Library library, WebRequest request) {
 
         LibraryEntity libraryEntity =
         libraryRepository
-                        .findByNameAndDeletedFalse(name)
+                        .findWithBooksByNameAndDeletedFalse(name)
                         .orElseThrow(
                                 () ->
                                         new IllegalArgumentException(
                                                 "Couldn't find a library with the name: " + name));
 
+        if (request.checkNotModified(etag(libraryEntity))) {
+            return null;
+        }
+
         if (library.getName() != null) {
            CustomObjectMapper.validateLibrary(library.getName());
 
@@ -142,33 +191,21 @@ public class LibraryController {
         }
 
         if (!library.getBooks().isEmpty()) {
+            List<BookEntity> books = referenceResolver.books(library.getBooks());
             libraryEntity.getBooks().clear();
-
-            for (String bookTitle : library.getBooks()) {
-                BookEntity book = bookRepository.findByTitleAndDeletedFalse(bookTitle)
-                    .orElseThrow(() -> new IllegalArgumentException(
-                                "A Book with the title doesn't exist: " + bookTitle));
-
-                libraryEntity.getBooks().add(book);
-            }
+            libraryEntity.getBooks().addAll(books);
         }
 
         if (!library.getLenders().isEmpty()) {
+            List<LenderEntity> lenders = referenceResolver.lenders(library.getLenders());
             libraryEntity.getLenders().clear();
-
-            for (String lenderName : library.getBooks()) {
-                LenderEntity lender = lenderRepository.findByNameAndDeletedFalse(lenderName)
-                    .orElseThrow(() -> new IllegalArgumentException(
-                                "A lender with the name doesn't exist: " + lenderName));
-
-                libraryEntity.getLenders().add(lender);
-            }
+            libraryEntity.getLenders().addAll(lenders);
         }
 
         libraryEntity = libraryRepository.save(libraryEntity);
         library = CustomObjectMapper.map(libraryEntity);
 
-        return ResponseEntity.ok(library);
+        return ResponseEntity.ok().eTag(etag(libraryEntity)).body(library);
     }
 
     @DeleteMapping("/{name}")
@@ -176,7 +213,7 @@ public class LibraryController {
 
         LibraryEntity libraryEntity =
                 libraryRepository
-                        .findByNameAndDeletedFalse(name)
+                        .findWithBooksByNameAndDeletedFalse(name)
                         .orElseThrow(
                                 () ->
                                         new IllegalArgumentException(
@@ -190,6 +227,14 @@ public class LibraryController {
         return ResponseEntity.ok(library);
     }
 
+    private static String etag(LibraryEntity libraryEntity) {
+        long dependencies =
+                EntityTags.versions(libraryEntity.getBooks(), BookEntity::getVersion)
+                        + EntityTags.versions(libraryEntity.getLenders(), LenderEntity::getVersion);
+
+        return EntityTags.of(libraryEntity.getId(), libraryEntity.getVersion(), dependencies);
+    }
+
     public static Specification<LibraryEntity> filter(@NonNull final Map<String, String> filter) {
 
         Boolean deleted = null;
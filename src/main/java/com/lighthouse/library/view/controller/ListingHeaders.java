@@ -0,0 +1,33 @@
+package com.lighthouse.library.view.controller;
+
+import com.lighthouse.library.io.repository.Listing;
+
+import org.springframework.http.HttpHeaders;
+
+/** Response headers describing where a listing continues. */
+final class ListingHeaders {
+
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+    static final String HAS_NEXT = "X-Has-Next";
+    static final String TOTAL_COUNT = "X-Total-Count";
+    static final String TOTAL_ESTIMATE = "X-Total-Estimate";
+
+    private ListingHeaders() {}
+
+    static HttpHeaders of(Listing<?> listing) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HAS_NEXT, String.valueOf(listing.hasNext()));
+
+        if (listing.hasNext()) {
+            headers.add(NEXT_CURSOR, listing.next().encode());
+        }
+
+        if (listing.total() != null) {
+            headers.add(
+                    listing.estimatedTotal() ? TOTAL_ESTIMATE : TOTAL_COUNT,
+                    String.valueOf(listing.total()));
+        }
+
+        return headers;
+    }
+}
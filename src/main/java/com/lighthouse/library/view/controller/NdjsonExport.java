@@ -0,0 +1,63 @@
+package com.lighthouse.library.view.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.lighthouse.library.io.repository.ExportRepository;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+
+/** Streams an export as newline-delimited JSON, one line per row, flushed once per chunk. */
+final class NdjsonExport {
+
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    private static final ObjectMapper MAPPER =
+            JsonMapper.builder()
+                    .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .build();
+
+    private NdjsonExport() {}
+
+    static <T, R> ResponseEntity<StreamingResponseBody> of(
+            ExportRepository exportRepository,
+            Class<T> type,
+            Specification<T> filter,
+            Function<T, R> mapper) {
+        StreamingResponseBody body =
+                outputStream -> {
+                    try (JsonGenerator generator = MAPPER.createGenerator(outputStream)) {
+                        // Rows are terminated by a newline instead of separated by a space.
+                        generator.setRootValueSeparator(null);
+
+                        exportRepository.forEachChunk(
+                                type,
+                                filter,
+                                chunk -> {
+                                    try {
+                                        for (T row : chunk) {
+                                            MAPPER.writeValue(generator, mapper.apply(row));
+                                            generator.writeRaw('\n');
+                                        }
+
+                                        generator.flush();
+                                    } catch (IOException e) {
+                                        throw new UncheckedIOException(e);
+                                    }
+                                });
+                    }
+                };
+
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+}
@@ -0,0 +1,105 @@
+package com.lighthouse.library.view.controller;
+
+import com.lighthouse.library.io.jdbc.RequestQueries;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The number of SQL statements an endpoint may run per request. A request over its budget is
+ * logged with the shapes of its statements, and fails when the budget is enforced, which is meant
+ * for integration tests so a regression fails the build.
+ */
+@Component
+@Slf4j
+class QueryBudget {
+
+    static final String QUERY_COUNT = "X-Query-Count";
+    static final String QUERY_TIME = "X-Query-Time";
+
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets = new HashMap<>();
+    private final boolean enforced;
+
+    QueryBudget(
+            @Value("${query-budget.default}") int defaultBudget,
+            @Value("${query-budget.endpoints:}") String budgets,
+            @Value("${query-budget.enforced:false}") boolean enforced) {
+        this.defaultBudget = defaultBudget;
+        this.enforced = enforced;
+
+        for (String budget : budgets.split(";")) {
+            if (budget.isBlank()) {
+                continue;
+            }
+
+            int separator = budget.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException(
+                        "query-budget.endpoints should be 'METHOD /pattern=statements' entries: "
+                                + budget);
+            }
+
+            this.budgets.put(
+                    budget.substring(0, separator).trim(),
+                    Integer.parseInt(budget.substring(separator + 1).trim()));
+        }
+    }
+
+    boolean isEnforced() {
+        return enforced;
+    }
+
+    /**
+     * Checks the request once against the budget of its endpoint and returns whether it went over.
+     * Later calls for the same request return false.
+     */
+    boolean exceeded(@NonNull HttpServletRequest request, @NonNull RequestQueries queries) {
+        if (!queries.markReported()) {
+            return false;
+        }
+
+        String endpoint = endpoint(request);
+        int budget = budget(endpoint);
+
+        if (queries.statements() <= budget) {
+            return false;
+        }
+
+        StringBuilder shapes = new StringBuilder();
+        for (Map.Entry<String, Integer> shape : queries.shapes().entrySet()) {
+            shapes.append("\n  ").append(shape.getValue()).append("x ").append(shape.getKey());
+        }
+
+        log.warn(
+                "{} ran {} SQL statements in {}ms, over its budget of {}:{}",
+                endpoint,
+                queries.statements(),
+                queries.millis(),
+                budget,
+                shapes);
+
+        return true;
+    }
+
+    /** The budget of an endpoint as returned by {@link #endpoint}. */
+    int budget(@NonNull String endpoint) {
+        return budgets.getOrDefault(endpoint, defaultBudget);
+    }
+
+    /** {@code GET /books/{title}} for a request that was mapped to a handler, else the path. */
+    static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
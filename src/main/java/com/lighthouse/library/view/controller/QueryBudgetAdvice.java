@@ -0,0 +1,60 @@
+package com.lighthouse.library.view.controller;
+
+import com.lighthouse.library.io.jdbc.RequestQueries;
+
+import lombok.NonNull;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/** Adds the query headers to a response body and fails the request if its budget is enforced. */
+@ControllerAdvice
+class QueryBudgetAdvice implements ResponseBodyAdvice<Object> {
+
+    private final QueryBudget queryBudget;
+
+    QueryBudgetAdvice(@NonNull QueryBudget queryBudget) {
+        this.queryBudget = queryBudget;
+    }
+
+    @Override
+    public boolean supports(
+            MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response) {
+
+        RequestQueries queries = RequestQueries.current();
+        if (queries == null || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+
+        response.getHeaders().set(QueryBudget.QUERY_COUNT, String.valueOf(queries.statements()));
+        response.getHeaders().set(QueryBudget.QUERY_TIME, String.valueOf(queries.millis()));
+
+        if (queryBudget.exceeded(servletRequest.getServletRequest(), queries)
+                && queryBudget.isEnforced()) {
+            throw new IllegalStateException(
+                    "%s ran %d SQL statements, over its budget"
+                            .formatted(
+                                    QueryBudget.endpoint(servletRequest.getServletRequest()),
+                                    queries.statements()));
+        }
+
+        return body;
+    }
+}
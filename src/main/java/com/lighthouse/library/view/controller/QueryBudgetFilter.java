@@ -0,0 +1,56 @@
+package com.lighthouse.library.view.controller;
+
+import com.lighthouse.library.io.jdbc.RequestQueries;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.NonNull;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements of each request. Responses with a body get their query headers and
+ * budget check from {@link QueryBudgetAdvice} before the body is written; the ones without a body
+ * are checked here once the handler is done. Runs ahead of the security filter chain, so the
+ * statements of the authentication count as well.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private final QueryBudget queryBudget;
+
+    QueryBudgetFilter(@NonNull QueryBudget queryBudget) {
+        this.queryBudget = queryBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestQueries queries = RequestQueries.start();
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!response.isCommitted()) {
+                response.setHeader(QueryBudget.QUERY_COUNT, String.valueOf(queries.statements()));
+                response.setHeader(QueryBudget.QUERY_TIME, String.valueOf(queries.millis()));
+            }
+
+            queryBudget.exceeded(request, queries);
+            RequestQueries.end();
+        }
+    }
+}
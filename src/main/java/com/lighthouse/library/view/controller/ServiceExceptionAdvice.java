@@ -1,7 +1,14 @@
 package com.lighthouse.library.view.controller;
 
+import com.lighthouse.library.io.jdbc.ConnectionWaitTimeoutException;
+import com.lighthouse.library.security.PasswordHashingRejectedException;
+
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.core.NestedRuntimeException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -21,6 +28,75 @@ public class ServiceExceptionAdvice {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Invalid paging or cursor arguments, which the exception translation of the repositories
+     * wraps on their way out.
+     */
+    @ResponseBody
+    @ExceptionHandler({InvalidDataAccessApiUsageException.class})
+    public ResponseEntity<?> handleException(InvalidDataAccessApiUsageException ex) {
+
+        if (ex.getCause() instanceof IllegalArgumentException cause) {
+            return handleException(cause);
+        }
+
+        return handleException((NestedRuntimeException) ex);
+    }
+
+    @ResponseBody
+    @ExceptionHandler({OptimisticLockingFailureException.class})
+    public ResponseEntity<?> handleException(OptimisticLockingFailureException ex) {
+
+        log.warn(ex.getMessage(), ex);
+
+        return new ResponseEntity<>(
+                "The entity was changed by another request, reload it and try again",
+                HttpStatus.CONFLICT);
+    }
+
+    @ResponseBody
+    @ExceptionHandler({PasswordHashingRejectedException.class})
+    public ResponseEntity<?> handleException(PasswordHashingRejectedException ex) {
+
+        log.warn(ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many logins and signups at once, try again later");
+    }
+
+    @ResponseBody
+    @ExceptionHandler({SingleFlightTimeoutException.class})
+    public ResponseEntity<?> handleException(SingleFlightTimeoutException ex) {
+
+        log.warn(ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("The service is busy, try again later");
+    }
+
+    /**
+     * Data access and transaction failures. The ones caused by a full connection pool are answered
+     * with a 503, so clients back off and retry instead of treating them as server errors.
+     */
+    @ResponseBody
+    @ExceptionHandler({NestedRuntimeException.class})
+    public ResponseEntity<?> handleException(NestedRuntimeException ex) {
+
+        if (ex.contains(ConnectionWaitTimeoutException.class)) {
+            log.warn(ex.getMessage());
+
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("The service is busy, try again later");
+        }
+
+        log.error(ex.getMessage(), ex);
+
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
     @ResponseBody
     @ExceptionHandler({Exception.class})
     public ResponseEntity<?> handleException(Exception ex) {
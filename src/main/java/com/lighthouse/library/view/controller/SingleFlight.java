@@ -0,0 +1,101 @@
+package com.lighthouse.library.view.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.NonNull;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical single-entity reads. The first request for a key loads and maps
+ * the entity on its own thread, the ones arriving while it is in flight wait up to {@code
+ * single-flight.max-wait} for its response body instead of loading it again, and get its failure
+ * if it fails. Nothing is kept once the load is done: a request only ever gets a body whose load
+ * was running when it arrived, never one of an earlier, finished load.
+ *
+ * <p>The shared bodies are read by several responses at once and must not be changed after the
+ * load.
+ */
+@Component
+class SingleFlight {
+
+    /** A mapped response body with the entity tag of the entity it was mapped from, if any. */
+    record Loaded<T>(@NonNull T body, String etag) {}
+
+    private final ConcurrentMap<String, CompletableFuture<Loaded<?>>> inFlight =
+            new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final MeterRegistry meterRegistry;
+
+    SingleFlight(
+            @Value("${single-flight.max-wait}") Duration maxWait,
+            @NonNull MeterRegistry meterRegistry) {
+        this.maxWait = maxWait;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Loaded<T> load(
+            @NonNull String entity, @NonNull String name, @NonNull Supplier<Loaded<T>> loader) {
+        String key = entity + "/" + name;
+        CompletableFuture<Loaded<?>> flight = new CompletableFuture<>();
+        CompletableFuture<Loaded<?>> leader = inFlight.putIfAbsent(key, flight);
+
+        if (leader != null) {
+            coalesced(entity).increment();
+
+            return (Loaded<T>) await(leader);
+        }
+
+        try {
+            Loaded<T> loaded = loader.get();
+            flight.complete(loaded);
+
+            return loaded;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private Loaded<?> await(CompletableFuture<Loaded<?>> leader) {
+        try {
+            return leader.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new SingleFlightTimeoutException(
+                    "Gave up waiting for a concurrent load after " + maxWait, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a concurrent load", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Counter coalesced(String entity) {
+        return Counter.builder("library.single-flight.coalesced")
+                .description("Reads answered with the body of a concurrent identical read")
+                .tag("entity", entity)
+                .register(meterRegistry);
+    }
+}
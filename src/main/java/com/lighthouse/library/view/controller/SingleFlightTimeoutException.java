@@ -0,0 +1,9 @@
+package com.lighthouse.library.view.controller;
+
+/** Thrown when a coalesced read waited longer than allowed for the load it joined. */
+class SingleFlightTimeoutException extends RuntimeException {
+
+    SingleFlightTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -5,6 +5,11 @@ import static com.lighthouse.library.view.model.CustomObjectMapper.validatePassw
 
 import com.lighthouse.library.io.entity.AppUserEntity;
 import com.lighthouse.library.io.repository.AppUserRepository;
+import com.lighthouse.library.io.repository.Listing;
+import com.lighthouse.library.io.repository.ListingRepository;
+import com.lighthouse.library.io.repository.SortWhitelist;
+import com.lighthouse.library.security.CachedUserDetailsService;
+import com.lighthouse.library.security.TokenEpochRegistry;
 import com.lighthouse.library.view.model.CustomObjectMapper;
 import com.lighthouse.library.view.model.response.AppUser;
 
@@ -12,7 +17,6 @@ import jakarta.persistence.criteria.Predicate;
 
 import lombok.NonNull;
 
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
@@ -34,10 +38,22 @@ import java.util.Map;
 @RequestMapping("/users")
 public class UserController {
 
-    private final AppUserRepository appUserRepository;
+    static final SortWhitelist SORTABLE = SortWhitelist.of("username");
 
-    public UserController(AppUserRepository appUserRepository) {
+    private final AppUserRepository appUserRepository;
+    private final CachedUserDetailsService userDetailsService;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final ListingRepository listingRepository;
+
+    public UserController(
+            AppUserRepository appUserRepository,
+            CachedUserDetailsService userDetailsService,
+            TokenEpochRegistry tokenEpochRegistry,
+            ListingRepository listingRepository) {
         this.appUserRepository = appUserRepository;
+        this.userDetailsService = userDetailsService;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.listingRepository = listingRepository;
     }
 
     @GetMapping
@@ -45,17 +61,27 @@ public class UserController {
             @RequestParam Map<String, String> filters,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
-            @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder) {
-
-        Iterable<AppUserEntity> allUsers =
-                appUserRepository.findAll(filter(filters), PageRequest.of(page, size));
+            @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "none") String total) {
+
+        Listing<AppUserEntity> allUsers =
+                listingRepository.find(
+                        AppUserEntity.class,
+                        filter(filters),
+                        SORTABLE.parse(sort, sortOrder),
+                        page,
+                        size,
+                        cursor,
+                        ListingRepository.Total.of(total));
 
         List<AppUser> responseAppUsers = new ArrayList<>();
-        for (AppUserEntity appUserEntity : allUsers) {
+        for (AppUserEntity appUserEntity : allUsers.items()) {
             responseAppUsers.add(CustomObjectMapper.map(appUserEntity));
         }
 
-        return ResponseEntity.ok(responseAppUsers);
+        return ResponseEntity.ok().headers(ListingHeaders.of(allUsers)).body(responseAppUsers);
     }
 
     @PostMapping
@@ -67,7 +93,10 @@ public class UserController {
                     "User with the username already exists: " + appUserEntity.getUsername());
         }
 
+        appUserEntity.setTokenEpoch(tokenEpochRegistry.firstEpoch(appUserEntity.getUsername()));
         appUserEntity = appUserRepository.save(appUserEntity);
+        userDetailsService.evict(appUserEntity.getUsername());
+        tokenEpochRegistry.update(appUserEntity.getUsername(), appUserEntity.getTokenEpoch());
         appUser = CustomObjectMapper.map(appUserEntity);
 
         return ResponseEntity.ok(appUser);
@@ -101,6 +130,8 @@ public class UserController {
                                                 "Couldn't find user with the username: "
                                                         + username));
 
+        long nextEpoch = appUserEntity.getTokenEpoch() + 1;
+
         if (appUser.getUsername() != null) {
             validateName(appUser.getUsername());
 
@@ -110,6 +141,7 @@ public class UserController {
             }
 
             appUserEntity.setUsername(appUser.getUsername());
+            nextEpoch = Math.max(nextEpoch, tokenEpochRegistry.firstEpoch(appUser.getUsername()));
         }
 
         if (appUser.getPassword() != null) {
@@ -117,7 +149,13 @@ public class UserController {
             appUserEntity.setPassword(appUser.getPassword());
         }
 
+        appUserEntity.setTokenEpoch(nextEpoch);
         appUserEntity = appUserRepository.save(appUserEntity);
+        userDetailsService.evict(username);
+        userDetailsService.evict(appUserEntity.getUsername());
+        tokenEpochRegistry.revoke(username);
+        tokenEpochRegistry.update(appUserEntity.getUsername(), appUserEntity.getTokenEpoch());
+
         AppUser updatedAppUser = CustomObjectMapper.map(appUserEntity);
 
         return ResponseEntity.ok(updatedAppUser);
@@ -135,7 +173,10 @@ public class UserController {
                                                 "Couldn't find user with username: " + username));
 
         appUserEntity.setDeleted(true);
+        appUserEntity.setTokenEpoch(appUserEntity.getTokenEpoch() + 1);
         appUserRepository.save(appUserEntity);
+        userDetailsService.evict(username);
+        tokenEpochRegistry.revoke(username);
 
         AppUser appUser = CustomObjectMapper.map(appUserEntity);
         return ResponseEntity.ok(appUser);
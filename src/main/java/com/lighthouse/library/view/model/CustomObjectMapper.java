@@ -6,6 +6,9 @@ import com.lighthouse.library.io.entity.BookEntity;
 import com.lighthouse.library.io.entity.GenreEntity;
 import com.lighthouse.library.io.entity.LenderEntity;
 import com.lighthouse.library.io.entity.LibraryEntity;
+import com.lighthouse.library.io.repository.BookRow;
+import com.lighthouse.library.io.repository.ElementRow;
+import com.lighthouse.library.io.repository.NamedRow;
 import com.lighthouse.library.view.model.response.AppUser;
 import com.lighthouse.library.view.model.response.Author;
 import com.lighthouse.library.view.model.response.Book;
@@ -13,6 +16,9 @@ import com.lighthouse.library.view.model.response.Genre;
 import com.lighthouse.library.view.model.response.Lender;
 import com.lighthouse.library.view.model.response.Library;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
 import lombok.NonNull;
 
 import java.util.ArrayList;
@@ -21,6 +27,19 @@ import java.util.List;
 /** CustomObjectMapper */
 public class CustomObjectMapper {
 
+    // Static like the mapper, so the timers are registered with the global registry, which
+    // forwards to the application's registries.
+    private static final Timer MAP_BOOK = mapTimer("book", "entity");
+    private static final Timer MAP_GENRE = mapTimer("genre", "entity");
+    private static final Timer MAP_AUTHOR = mapTimer("author", "entity");
+    private static final Timer MAP_LENDER = mapTimer("lender", "entity");
+    private static final Timer MAP_LIBRARY = mapTimer("library", "entity");
+    private static final Timer MAP_BOOK_ROW = mapTimer("book", "row");
+    private static final Timer MAP_GENRE_ROW = mapTimer("genre", "row");
+    private static final Timer MAP_AUTHOR_ROW = mapTimer("author", "row");
+    private static final Timer MAP_LENDER_ROW = mapTimer("lender", "row");
+    private static final Timer MAP_LIBRARY_ROW = mapTimer("library", "row");
+
     public static AppUser map(@NonNull AppUserEntity appUserEntity) {
 
         validateName(appUserEntity.getUsername());
@@ -49,6 +68,8 @@ public class CustomObjectMapper {
 
     public static Book map(@NonNull BookEntity bookEntity) {
 
+        Timer.Sample sample = Timer.start();
+
         validateBookTitle(bookEntity.getTitle());
 
         Book book = new Book();
@@ -62,6 +83,8 @@ public class CustomObjectMapper {
         book.setDeleted(bookEntity.getDeleted());
         book.setGenres(genres);
 
+        sample.stop(MAP_BOOK);
+
         return book;
     }
 
@@ -85,12 +108,16 @@ public class CustomObjectMapper {
 
     public static Genre map(@NonNull GenreEntity genreEntity) {
 
+        Timer.Sample sample = Timer.start();
+
         validateGenre(genreEntity.getName());
 
         Genre genre = new Genre();
         genre.setName(genreEntity.getName());
         genre.setDelted(genreEntity.getDeleted());
 
+        sample.stop(MAP_GENRE);
+
         return genre;
     }
 
@@ -107,6 +134,8 @@ public class CustomObjectMapper {
 
     public static Author map(@NonNull AuthorEntity authorEntity) {
 
+        Timer.Sample sample = Timer.start();
+
         validateName(authorEntity.getName());
 
         Author author = new Author();
@@ -121,6 +150,8 @@ public class CustomObjectMapper {
             authoredBookTitles.add(book.getTitle());
         }
 
+        sample.stop(MAP_AUTHOR);
+
         return author;
     }
 
@@ -145,6 +176,8 @@ public class CustomObjectMapper {
 
     public static Lender map(@NonNull LenderEntity lenderEntity) {
 
+        Timer.Sample sample = Timer.start();
+
         validateName(lenderEntity.getName());
 
         Lender lender = new Lender();
@@ -158,6 +191,8 @@ public class CustomObjectMapper {
             bookTitles.add(bookEntity.getTitle());
         }
 
+        sample.stop(MAP_LENDER);
+
         return lender;
     }
 
@@ -182,6 +217,8 @@ public class CustomObjectMapper {
 
     public static Library map(@NonNull LibraryEntity libraryEntity) {
 
+        Timer.Sample sample = Timer.start();
+
         validateLibrary(libraryEntity.getName());
 
         Library library = new Library();
@@ -200,6 +237,8 @@ public class CustomObjectMapper {
             lenderNames.add(lenderEntity.getName());
         }
 
+        sample.stop(MAP_LIBRARY);
+
         return library;
     }
 
@@ -228,6 +267,121 @@ public class CustomObjectMapper {
         return libraryEntity;
     }
 
+    public static Book mapBook(@NonNull BookRow bookRow, @NonNull List<ElementRow> genreRows) {
+
+        Timer.Sample sample = Timer.start();
+
+        validateBookTitle(bookRow.getTitle());
+
+        Book book = new Book();
+        List<Genre> genres = new ArrayList<>();
+
+        for (ElementRow genreRow : genreRows) {
+            validateGenre(genreRow.getName());
+
+            Genre genre = new Genre();
+            genre.setName(genreRow.getName());
+            genre.setDelted(genreRow.getDeleted());
+            genres.add(genre);
+        }
+
+        book.setTitle(bookRow.getTitle());
+        book.setDeleted(bookRow.getDeleted());
+        book.setGenres(genres);
+
+        sample.stop(MAP_BOOK_ROW);
+
+        return book;
+    }
+
+    public static Genre mapGenre(@NonNull NamedRow genreRow) {
+
+        Timer.Sample sample = Timer.start();
+
+        validateGenre(genreRow.getName());
+
+        Genre genre = new Genre();
+        genre.setName(genreRow.getName());
+        genre.setDelted(genreRow.getDeleted());
+
+        sample.stop(MAP_GENRE_ROW);
+
+        return genre;
+    }
+
+    public static Author mapAuthor(
+            @NonNull NamedRow authorRow, @NonNull List<ElementRow> bookRows) {
+
+        Timer.Sample sample = Timer.start();
+
+        validateName(authorRow.getName());
+
+        Author author = new Author();
+        author.setName(authorRow.getName());
+        author.setDeleted(authorRow.getDeleted());
+
+        for (ElementRow bookRow : bookRows) {
+            validateBookTitle(bookRow.getName());
+            author.getAuthoredBooks().add(bookRow.getName());
+        }
+
+        sample.stop(MAP_AUTHOR_ROW);
+
+        return author;
+    }
+
+    public static Lender mapLender(
+            @NonNull NamedRow lenderRow, @NonNull List<ElementRow> bookRows) {
+
+        Timer.Sample sample = Timer.start();
+
+        validateName(lenderRow.getName());
+
+        Lender lender = new Lender();
+        lender.setName(lenderRow.getName());
+        lender.setDeleted(lenderRow.getDeleted());
+
+        for (ElementRow bookRow : bookRows) {
+            lender.getLendedBooks().add(bookRow.getName());
+        }
+
+        sample.stop(MAP_LENDER_ROW);
+
+        return lender;
+    }
+
+    public static Library mapLibrary(
+            @NonNull NamedRow libraryRow,
+            @NonNull List<ElementRow> bookRows,
+            @NonNull List<ElementRow> lenderRows) {
+
+        Timer.Sample sample = Timer.start();
+
+        validateLibrary(libraryRow.getName());
+
+        Library library = new Library();
+        library.setName(libraryRow.getName());
+        library.setDeleted(libraryRow.getDeleted());
+
+        for (ElementRow bookRow : bookRows) {
+            library.getBooks().add(bookRow.getName());
+        }
+        for (ElementRow lenderRow : lenderRows) {
+            library.getLenders().add(lenderRow.getName());
+        }
+
+        sample.stop(MAP_LIBRARY_ROW);
+
+        return library;
+    }
+
+    private static Timer mapTimer(String type, String source) {
+        return Timer.builder("library.mapper.map")
+                .description("Time to map an entity or a listing row to its response model")
+                .tags("type", type, "source", source)
+                .register(Metrics.globalRegistry);
+    }
+
     public static void validateName(String username) {
         validateName(username, "Name");
     }
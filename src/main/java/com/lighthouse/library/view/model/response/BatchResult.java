@@ -0,0 +1,31 @@
+package com.lighthouse.library.view.model.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/** Outcome of one item of a batch request, in the order the items were sent */
+@Getter
+@Setter
+public class BatchResult<T> {
+    private int index;
+    private boolean created;
+    private T item;
+    private String error;
+
+    public static <T> BatchResult<T> created(int index, T item) {
+        BatchResult<T> result = new BatchResult<>();
+        result.setIndex(index);
+        result.setCreated(true);
+        result.setItem(item);
+
+        return result;
+    }
+
+    public static <T> BatchResult<T> rejected(int index, String error) {
+        BatchResult<T> result = new BatchResult<>();
+        result.setIndex(index);
+        result.setError(error);
+
+        return result;
+    }
+}
@@ -0,0 +1,14 @@
+package com.lighthouse.library.view.model.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/** Counters of one second-level cache region since the start of the application */
+@Getter
+@Setter
+public class CacheRegion {
+    private String region;
+    private long hits;
+    private long misses;
+    private long puts;
+}
@@ -0,0 +1,16 @@
+package com.lighthouse.library.view.model.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** ImportRow, a book to import with the names of its genres and authors */
+@Getter
+@Setter
+public class ImportRow {
+    private String title;
+    private List<String> genres = new ArrayList<>();
+    private List<String> authors = new ArrayList<>();
+}
@@ -0,0 +1,65 @@
+-- Schema as previously generated by Hibernate from the entity mappings.
+
+create table app_users (
+    id bigint generated by default as identity primary key,
+    username varchar(255) not null unique,
+    password varchar(255) not null,
+    deleted boolean not null,
+    role varchar(255) not null,
+    token_epoch bigint not null
+);
+
+create table genres (
+    id bigint generated by default as identity primary key,
+    name varchar(255) not null unique,
+    deleted boolean not null
+);
+
+create table books (
+    id bigint generated by default as identity primary key,
+    title varchar(255) not null,
+    deleted boolean not null
+);
+
+create table authors (
+    id bigint generated by default as identity primary key,
+    name varchar(255) not null,
+    deleted boolean not null
+);
+
+create table lenders (
+    id bigint generated by default as identity primary key,
+    name varchar(255) not null,
+    deleted boolean not null
+);
+
+create table libraries (
+    id bigint generated by default as identity primary key,
+    name varchar(255) not null,
+    deleted boolean not null
+);
+
+create table book_to_genre (
+    book_id bigint not null references books (id),
+    genres_id bigint not null references genres (id)
+);
+
+create table author_to_book (
+    author_id bigint not null references authors (id),
+    authored_books_id bigint not null references books (id)
+);
+
+create table lender_to_book (
+    lender_id bigint not null references lenders (id),
+    lended_books_id bigint not null references books (id)
+);
+
+create table library_to_book (
+    library_id bigint not null references libraries (id),
+    books_id bigint not null references books (id)
+);
+
+create table library_to_lender (
+    library_id bigint not null references libraries (id),
+    lenders_id bigint not null references lenders (id)
+);
@@ -0,0 +1,42 @@
+-- Names are unique among live rows only, deleted rows keep their name.
+-- These also serve findBy...AndDeletedFalse and existsBy...AndDeletedFalse.
+create unique index books_live_title_key on books (title) where deleted = false;
+create unique index authors_live_name_key on authors (name) where deleted = false;
+create unique index lenders_live_name_key on lenders (name) where deleted = false;
+create unique index libraries_live_name_key on libraries (name) where deleted = false;
+
+-- Owner side of every join table, used to load a collection.
+create index book_to_genre_book_idx on book_to_genre (book_id);
+create index author_to_book_author_idx on author_to_book (author_id);
+create index lender_to_book_lender_idx on lender_to_book (lender_id);
+create index library_to_book_library_idx on library_to_book (library_id);
+create index library_to_lender_library_idx on library_to_lender (library_id);
+
+-- Reverse direction, used by the reference checks before deletes
+-- (existsByGenres, existsByAuthoredBooks, existsByLendedBooks, existsByBooks, existsByLenders).
+create index book_to_genre_genre_idx on book_to_genre (genres_id, book_id);
+create index author_to_book_book_idx on author_to_book (authored_books_id, author_id);
+create index lender_to_book_book_idx on lender_to_book (lended_books_id, lender_id);
+create index library_to_book_book_idx on library_to_book (books_id, library_id);
+create index library_to_lender_lender_idx on library_to_lender (lenders_id, library_id);
+
+-- Sort keys accepted by the list endpoints, see SortWhitelist.
+create index books_title_id_idx on books (title, id);
+create index authors_name_id_idx on authors (name, id);
+create index genres_name_id_idx on genres (name, id);
+create index lenders_name_id_idx on lenders (name, id);
+create index libraries_name_id_idx on libraries (name, id);
+create index app_users_username_id_idx on app_users (username, id);
+
+-- lower(x) like '%...%' filters of books, authors and lenders.
+create extension if not exists pg_trgm;
+
+create index books_title_trgm_idx on books using gin (lower(title) gin_trgm_ops);
+create index authors_name_trgm_idx on authors using gin (lower(name) gin_trgm_ops);
+create index lenders_name_trgm_idx on lenders using gin (lower(name) gin_trgm_ops);
+
+-- lower(x) like '...' filters of genres, libraries and users, where the client supplies the
+-- pattern and usually anchors it at the start.
+create index genres_lower_name_idx on genres (lower(name) text_pattern_ops);
+create index libraries_lower_name_idx on libraries (lower(name) text_pattern_ops);
+create index app_users_lower_username_idx on app_users (lower(username) text_pattern_ops);
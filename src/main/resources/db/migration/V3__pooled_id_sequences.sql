@@ -0,0 +1,24 @@
+-- Identity columns rule out JDBC insert batching, the ids come from pooled sequences instead.
+-- Hibernate hands out the 50 ids below each value it fetches, so every sequence starts 50 past
+-- the highest existing id.
+
+create sequence app_users_seq increment by 50;
+create sequence genres_seq increment by 50;
+create sequence books_seq increment by 50;
+create sequence authors_seq increment by 50;
+create sequence lenders_seq increment by 50;
+create sequence libraries_seq increment by 50;
+
+select setval('app_users_seq', coalesce(max(id), 0) + 50) from app_users;
+select setval('genres_seq', coalesce(max(id), 0) + 50) from genres;
+select setval('books_seq', coalesce(max(id), 0) + 50) from books;
+select setval('authors_seq', coalesce(max(id), 0) + 50) from authors;
+select setval('lenders_seq', coalesce(max(id), 0) + 50) from lenders;
+select setval('libraries_seq', coalesce(max(id), 0) + 50) from libraries;
+
+alter table app_users alter column id drop identity;
+alter table genres alter column id drop identity;
+alter table books alter column id drop identity;
+alter table authors alter column id drop identity;
+alter table lenders alter column id drop identity;
+alter table libraries alter column id drop identity;
@@ -0,0 +1,7 @@
+-- Optimistic locking and ETags of the single-entity endpoints.
+
+alter table genres add column version bigint not null default 0;
+alter table books add column version bigint not null default 0;
+alter table authors add column version bigint not null default 0;
+alter table lenders add column version bigint not null default 0;
+alter table libraries add column version bigint not null default 0;
@@ -0,0 +1,120 @@
+package com.lighthouse.library;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Runs the application against a Postgres started once for the whole test run, from binaries
+ * Maven downloads, so the tests need neither Docker nor the database of docker-compose. All the
+ * tests share one application context and the data it seeds on startup, so each test creates
+ * entities with names of its own. Metrics are exported as in production, the scrape included.
+ */
+@SpringBootTest(
+        properties = {
+            "security.password.strength=4",
+            "rate-limit.groups=auth /auth/**=1000000/1s;api /**=1000000/1s",
+            "security.token-epochs.ttl=1h",
+            "query-budget.enforced=true"
+        })
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public abstract class PostgresTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    private static String token;
+
+    @Autowired protected MockMvc mvc;
+
+    @Autowired protected ObjectMapper objectMapper;
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add(
+                "spring.datasource.url",
+                () ->
+                        "jdbc:postgresql://localhost:%d/postgres?reWriteBatchedInserts=true"
+                                .formatted(POSTGRES.getPort()));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    /** The request with the JSON body and the token of the seeded admin. */
+    protected MockHttpServletRequestBuilder asAdmin(
+            MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return asAdmin(request)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body));
+    }
+
+    protected MockHttpServletRequestBuilder asAdmin(MockHttpServletRequestBuilder request)
+            throws Exception {
+        if (token == null) {
+            MvcResult login =
+                    mvc.perform(
+                                    post("/auth/login")
+                                            .contentType(MediaType.APPLICATION_JSON)
+                                            .content(
+                                                    objectMapper.writeValueAsString(
+                                                            Map.of(
+                                                                    "username", "admin",
+                                                                    "password", "pass"))))
+                            .andExpect(status().isOk())
+                            .andReturn();
+
+            token = login.getResponse().getHeader(HttpHeaders.AUTHORIZATION);
+        }
+
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    /**
+     * The SQL statements the request runs with an empty second-level cache, asserting it
+     * succeeds.
+     */
+    protected long statements(MockHttpServletRequestBuilder request) throws Exception {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        mvc.perform(request).andExpect(status().is2xxSuccessful());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't start the test database", e);
+        }
+    }
+}
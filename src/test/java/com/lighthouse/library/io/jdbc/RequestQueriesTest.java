@@ -0,0 +1,35 @@
+package com.lighthouse.library.io.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+class RequestQueriesTest {
+
+    @AfterEach
+    void end() {
+        RequestQueries.end();
+    }
+
+    @Test
+    void parameterListsOfAnyLengthShareAShape() {
+        RequestQueries queries = RequestQueries.start();
+
+        queries.prepared("select * from books where id in (?,?)");
+        queries.prepared("select *\n from books where id in ( ?, ?, ? )");
+        queries.prepared(
+                "select * from books where id in ("
+                        + String.join(",", Collections.nCopies(100_000, "?"))
+                        + ")");
+        queries.prepared("select * from books where id in (?)");
+
+        assertThat(queries.shapes())
+                .containsExactly(
+                        Map.entry("select * from books where id in (?...)", 3),
+                        Map.entry("select * from books where id in (?)", 1));
+    }
+}
@@ -0,0 +1,28 @@
+package com.lighthouse.library.io.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class SortWhitelistTest {
+
+    private final SortWhitelist sortable = SortWhitelist.of("title");
+
+    @Test
+    void idFollowsTheDirectionOfTheKey() {
+        assertThat(sortable.parse("-title", Sort.Direction.ASC))
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "title", "id"));
+        assertThat(sortable.parse("title,id", Sort.Direction.DESC))
+                .isEqualTo(Sort.by(Sort.Direction.ASC, "title", "id"));
+    }
+
+    @Test
+    void mixedDirectionsAreRejected() {
+        assertThatThrownBy(() -> sortable.parse("title,-id", Sort.Direction.ASC))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sortable.parse("-title,+id", Sort.Direction.ASC))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,31 @@
+package com.lighthouse.library.security;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.lighthouse.library.PostgresTest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+class ManagementSecurityTest extends PostgresTest {
+
+    @Test
+    void scrapeTakesTheMetricsUser() throws Exception {
+        mvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("pass")))
+                .andExpect(status().isOk());
+        mvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("wrong")))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+    }
+
+    private static String basic(String password) {
+        return "Basic "
+                + Base64.getEncoder()
+                        .encodeToString(
+                                ("prometheus:" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,116 @@
+package com.lighthouse.library.view.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import com.lighthouse.library.PostgresTest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports creating the same new authors at once all succeed, without rejected chunks, and each
+ * author gets one live row.
+ */
+class AuthorUpsertConcurrencyTest extends PostgresTest {
+
+    private static final int IMPORTS = 16;
+
+    private static final int ROWS = 20;
+
+    private static final List<String> NAMES =
+            List.of(
+                    "Stress Author 0",
+                    "Stress Author 1",
+                    "Stress Author 2",
+                    "Stress Author 3",
+                    "Stress Author 4",
+                    "Stress Author 5",
+                    "Stress Author 6",
+                    "Stress Author 7");
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    // Each import has a genre of its own, as waiting for a shared new genre would serialize them.
+    @Test
+    void concurrentImportsWithTheSameNewAuthorsRejectNoRows() throws Exception {
+        List<MockHttpServletRequestBuilder> requests = new ArrayList<>();
+
+        for (int i = 0; i < IMPORTS; i++) {
+            StringBuilder csv = new StringBuilder("title,genres,authors\n");
+            for (int row = 0; row < ROWS; row++) {
+                csv.append("Stress Import ")
+                        .append(i)
+                        .append('-')
+                        .append(row)
+                        .append(",Stress Import Genre ")
+                        .append(i)
+                        .append(',')
+                        .append(authors())
+                        .append('\n');
+            }
+
+            requests.add(
+                    asAdmin(post("/import").contentType("text/csv").content(csv.toString())));
+        }
+
+        CyclicBarrier start = new CyclicBarrier(IMPORTS);
+        ExecutorService executor = Executors.newFixedThreadPool(IMPORTS);
+
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        try {
+            for (MockHttpServletRequestBuilder request : requests) {
+                responses.add(
+                        executor.submit(
+                                () -> {
+                                    start.await();
+                                    return mvc.perform(request).andReturn().getResponse();
+                                }));
+            }
+
+            for (Future<MockHttpServletResponse> future : responses) {
+                MockHttpServletResponse response = future.get(60, TimeUnit.SECONDS);
+
+                assertThat(response.getStatus()).isEqualTo(200);
+                assertThat(response.getContentAsString()).doesNotContain("\"error\"");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Integer rows =
+                jdbcTemplate.queryForObject(
+                        "select count(*) from authors"
+                                + " where name like 'Stress Author %' and deleted = false",
+                        Integer.class);
+        assertThat(rows).isEqualTo(NAMES.size());
+
+        Integer authoredBooks =
+                jdbcTemplate.queryForObject(
+                        "select count(distinct authored_books_id) from author_to_book"
+                                + " join authors on authors.id = author_id"
+                                + " where authors.name like 'Stress Author %'",
+                        Integer.class);
+        assertThat(authoredBooks).isEqualTo(IMPORTS * ROWS);
+    }
+
+    /** An overlapping subset of the names in any order, separated like a CSV list cell. */
+    private static String authors() {
+        List<String> names = new ArrayList<>(NAMES);
+        Collections.shuffle(names);
+
+        return String.join(";", names.subList(0, 3));
+    }
+}
@@ -0,0 +1,128 @@
+package com.lighthouse.library.view.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.lighthouse.library.PostgresTest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The single-entity endpoints fetch their entity graph in a fixed number of statements, however
+ * large the graph.
+ */
+class EntityGraphStatementsTest extends PostgresTest {
+
+    @Test
+    void getBookRunsTheSameStatementsForAnyNumberOfGenres() throws Exception {
+        createBook("graph-book-small", 1);
+        createBook("graph-book-large", 8);
+
+        long small = statements(asAdmin(get("/books/graph-book-small")));
+        long large = statements(asAdmin(get("/books/graph-book-large")));
+
+        // The version stamp, then the book joined with its genres.
+        assertThat(small).isEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void getAuthorRunsTheSameStatementsForAnyNumberOfBooks() throws Exception {
+        createAuthor("graph-author-s", createBooks("graph-author-s", 1));
+        createAuthor("graph-author-l", createBooks("graph-author-l", 6));
+
+        long small = statements(asAdmin(get("/authors/graph-author-s")));
+        long large = statements(asAdmin(get("/authors/graph-author-l")));
+
+        // The version stamp, then the author joined with its books.
+        assertThat(small).isEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void getLenderRunsTheSameStatementsForAnyNumberOfBooks() throws Exception {
+        createLender("graph-lender-s", createBooks("graph-lender-s", 1));
+        createLender("graph-lender-l", createBooks("graph-lender-l", 6));
+
+        long small = statements(asAdmin(get("/lenders/graph-lender-s")));
+        long large = statements(asAdmin(get("/lenders/graph-lender-l")));
+
+        // The lender joined with its books.
+        assertThat(small).isEqualTo(1);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void getAndDeleteLibraryRunTheSameStatementsForAnyGraphSize() throws Exception {
+        createLibrary("graph-library-small", "graph-lent-s", 1);
+        createLibrary("graph-library-large", "graph-lent-l", 6);
+
+        long smallGet = statements(asAdmin(get("/libraries/graph-library-small")));
+        long largeGet = statements(asAdmin(get("/libraries/graph-library-large")));
+        long smallDelete = statements(asAdmin(delete("/libraries/graph-library-small")));
+        long largeDelete = statements(asAdmin(delete("/libraries/graph-library-large")));
+
+        // The version stamp, the library joined with its books, then its lenders.
+        assertThat(smallGet).isEqualTo(3);
+        assertThat(largeGet).isEqualTo(smallGet);
+        // The library joined with its books, the update, then the lenders for the response.
+        assertThat(smallDelete).isEqualTo(3);
+        assertThat(largeDelete).isEqualTo(smallDelete);
+    }
+
+    private void createLibrary(String name, String lenderPrefix, int size) throws Exception {
+        List<String> lenders = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            String lender = lenderPrefix + "-" + i;
+            createLender(lender, createBooks(lender, 2));
+            lenders.add(lender);
+        }
+
+        mvc.perform(
+                        asAdmin(
+                                post("/libraries"),
+                                Map.of(
+                                        "name", name,
+                                        "books", createBooks(name, size),
+                                        "lenders", lenders)))
+                .andExpect(status().isOk());
+    }
+
+    private List<String> createBooks(String prefix, int count) throws Exception {
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            titles.add(createBook(prefix + "-book-" + i, 2));
+        }
+
+        return titles;
+    }
+
+    private String createBook(String title, int genres) throws Exception {
+        List<Map<String, String>> bookGenres = new ArrayList<>();
+        for (int i = 0; i < genres; i++) {
+            bookGenres.add(Map.of("name", "Graph Genre " + i));
+        }
+
+        mvc.perform(asAdmin(post("/books"), Map.of("title", title, "genres", bookGenres)))
+                .andExpect(status().isOk());
+
+        return title;
+    }
+
+    private void createAuthor(String name, List<String> books) throws Exception {
+        mvc.perform(asAdmin(post("/authors"), Map.of("name", name, "authoredBooks", books)))
+                .andExpect(status().isOk());
+    }
+
+    private void createLender(String name, List<String> books) throws Exception {
+        mvc.perform(asAdmin(post("/lenders"), Map.of("name", name, "lendedBooks", books)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,61 @@
+package com.lighthouse.library.view.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.lighthouse.library.PostgresTest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/** A deleted genre is revived by creating it again, directly or as the genre of a book. */
+class GenreRevivalTest extends PostgresTest {
+
+    @Test
+    void creatingABookRevivesItsDeletedGenre() throws Exception {
+        createGenre("Revived By Book");
+        deleteGenre("Revived By Book");
+
+        mvc.perform(
+                        asAdmin(
+                                post("/books"),
+                                Map.of(
+                                        "title", "Revival Book",
+                                        "genres", List.of(Map.of("name", "Revived By Book")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.genres[0].name").value("Revived By Book"));
+
+        expectLive("Revived By Book");
+    }
+
+    @Test
+    void creatingADeletedGenreRevivesIt() throws Exception {
+        createGenre("Revived Genre");
+        deleteGenre("Revived Genre");
+        createGenre("Revived Genre");
+
+        expectLive("Revived Genre");
+    }
+
+    private void createGenre(String name) throws Exception {
+        mvc.perform(asAdmin(post("/genres"), Map.of("name", name)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(name));
+    }
+
+    private void deleteGenre(String name) throws Exception {
+        mvc.perform(asAdmin(delete("/genres/" + name))).andExpect(status().isOk());
+    }
+
+    /** Deleted genres can't be read. */
+    private void expectLive(String name) throws Exception {
+        mvc.perform(asAdmin(get("/genres/" + name)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(name));
+    }
+}
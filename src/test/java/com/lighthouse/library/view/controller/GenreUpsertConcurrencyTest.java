@@ -0,0 +1,127 @@
+package com.lighthouse.library.view.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.lighthouse.library.PostgresTest;
+import com.lighthouse.library.view.model.response.BatchResult;
+import com.lighthouse.library.view.model.response.Book;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Books created and updated at once with the same new genres all succeed, without deadlocks or
+ * unique violations, and each genre gets one row.
+ */
+class GenreUpsertConcurrencyTest extends PostgresTest {
+
+    private static final int THREADS = 64;
+
+    private static final List<String> NAMES =
+            List.of(
+                    "Stress Genre 0",
+                    "Stress Genre 1",
+                    "Stress Genre 2",
+                    "Stress Genre 3",
+                    "Stress Genre 4",
+                    "Stress Genre 5",
+                    "Stress Genre 6",
+                    "Stress Genre 7");
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentBookWritesWithTheSameNewGenresAllSucceed() throws Exception {
+        List<MockHttpServletRequestBuilder> requests = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            String title = "Stress Book " + i;
+
+            // A third each of single creations, batch creations and updates.
+            switch (i % 3) {
+                case 0 -> requests.add(
+                        asAdmin(post("/books"), Map.of("title", title, "genres", genres())));
+                case 1 -> requests.add(
+                        asAdmin(
+                                post("/books/batch"),
+                                List.of(
+                                        Map.of("title", title + "a", "genres", genres()),
+                                        Map.of("title", title + "b", "genres", genres()))));
+                default -> {
+                    Map<String, Object> book = Map.of("title", title, "genres", List.of());
+                    mvc.perform(asAdmin(post("/books"), book)).andExpect(status().isOk());
+                    requests.add(asAdmin(patch("/books/" + title), Map.of("genres", genres())));
+                }
+            }
+        }
+
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        try {
+            for (MockHttpServletRequestBuilder request : requests) {
+                responses.add(
+                        executor.submit(
+                                () -> {
+                                    start.await();
+                                    return mvc.perform(request).andReturn().getResponse();
+                                }));
+            }
+
+            for (Future<MockHttpServletResponse> future : responses) {
+                MockHttpServletResponse response = future.get(60, TimeUnit.SECONDS);
+
+                assertThat(response.getStatus())
+                        .as(response.getContentAsString())
+                        .isEqualTo(200);
+
+                if (response.getContentAsString().startsWith("[")) {
+                    List<BatchResult<Book>> results =
+                            objectMapper.readValue(
+                                    response.getContentAsString(), new TypeReference<>() {});
+                    assertThat(results).allMatch(BatchResult::isCreated);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Integer rows =
+                jdbcTemplate.queryForObject(
+                        "select count(*) from genres where name like 'Stress Genre %'",
+                        Integer.class);
+        assertThat(rows).isEqualTo(NAMES.size());
+    }
+
+    /** An overlapping subset of the names in any order, which the upsert has to lock in one. */
+    private static List<Map<String, String>> genres() {
+        List<String> names = new ArrayList<>(NAMES);
+        Collections.shuffle(names);
+
+        List<Map<String, String>> genres = new ArrayList<>();
+        for (String name : names.subList(0, ThreadLocalRandom.current().nextInt(2, 9))) {
+            genres.add(Map.of("name", name));
+        }
+
+        return genres;
+    }
+}
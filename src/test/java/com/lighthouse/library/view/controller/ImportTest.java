@@ -0,0 +1,61 @@
+package com.lighthouse.library.view.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.lighthouse.library.PostgresTest;
+import com.lighthouse.library.view.model.response.Author;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+class ImportTest extends PostgresTest {
+
+    @Test
+    void importAddsBooksToExistingAuthorsAndChangesTheirTags() throws Exception {
+        importCsv("title,genres,authors\nImport Book 1,Import Genre,Import Author\n");
+        MockHttpServletResponse before = getAuthor("Import Author");
+
+        importCsv(
+                "title,genres,authors\n"
+                        + "Import Book 2,Import Genre,Import Author;Import Co-Author\n"
+                        + "Import Book 3,Import Genre,Import Author\n");
+        MockHttpServletResponse after = getAuthor("Import Author");
+
+        assertThat(authoredBooks(after))
+                .containsExactlyInAnyOrder("Import Book 1", "Import Book 2", "Import Book 3");
+        assertThat(after.getHeader(HttpHeaders.ETAG))
+                .isNotEqualTo(before.getHeader(HttpHeaders.ETAG));
+        assertThat(authoredBooks(getAuthor("Import Co-Author"))).containsExactly("Import Book 2");
+    }
+
+    private void importCsv(String csv) throws Exception {
+        String report =
+                mvc.perform(asAdmin(post("/import").contentType("text/csv").content(csv)))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        assertThat(report).doesNotContain("\"error\"");
+    }
+
+    private MockHttpServletResponse getAuthor(String name) throws Exception {
+        return mvc.perform(asAdmin(get("/authors/" + name)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+    }
+
+    private List<String> authoredBooks(MockHttpServletResponse response)
+            throws Exception {
+        return objectMapper
+                .readValue(response.getContentAsString(), Author.class)
+                .getAuthoredBooks();
+    }
+}
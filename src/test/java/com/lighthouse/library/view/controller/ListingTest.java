@@ -0,0 +1,67 @@
+package com.lighthouse.library.view.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.lighthouse.library.PostgresTest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class ListingTest extends PostgresTest {
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void offsetBeyondTheIntRangeIsABadRequest() throws Exception {
+        mvc.perform(asAdmin(get("/books").param("page", "1000000000").param("size", "5")))
+                .andExpect(status().isBadRequest());
+        mvc.perform(asAdmin(get("/books").param("size", String.valueOf(Integer.MAX_VALUE))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() throws Exception {
+        mvc.perform(asAdmin(get("/books").param("cursor", "not-a-cursor")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void estimateIsNotSkewedByTheOldestRows() throws Exception {
+        // None of the oldest rows match, half of the newer ones do.
+        jdbcTemplate.update(
+                "insert into genres (id, name, deleted, version)"
+                        + " select nextval('genres_seq'), 'estimate-old-' || i, false, 0"
+                        + " from generate_series(1, 5000) i");
+        jdbcTemplate.update(
+                "insert into genres (id, name, deleted, version)"
+                        + " select nextval('genres_seq'),"
+                        + " case when i % 2 = 0 then 'estimate-new-' else 'estimate-mid-' end || i,"
+                        + " false, 0"
+                        + " from generate_series(1, 15000) i");
+        jdbcTemplate.execute("analyze genres");
+
+        long exact = total("exact", "X-Total-Count");
+        long estimate = total("estimate", "X-Total-Estimate");
+
+        assertThat(exact).isEqualTo(7500);
+        assertThat(estimate).isBetween(exact / 4, exact * 2);
+    }
+
+    private long total(String total, String header) throws Exception {
+        String value =
+                mvc.perform(
+                                asAdmin(
+                                        get("/genres")
+                                                .param("name", "estimate-new-%")
+                                                .param("total", total)))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getHeader(header);
+
+        return Long.parseLong(value);
+    }
+}
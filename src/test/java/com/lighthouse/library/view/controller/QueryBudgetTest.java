@@ -0,0 +1,63 @@
+package com.lighthouse.library.view.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.lighthouse.library.PostgresTest;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * The list endpoints stay within their query budgets. Token epochs aren't cached here, so every
+ * request also runs the epoch lookup of its authentication, as it does whenever the cache misses.
+ */
+@TestPropertySource(properties = "security.token-epochs.ttl=0s")
+class QueryBudgetTest extends PostgresTest {
+
+    @Autowired private QueryBudget queryBudget;
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/books", "/authors", "/lenders", "/libraries", "/genres"})
+    void listEndpointStaysWithinItsBudget(String path) throws Exception {
+        long statements = queryCount(asAdmin(get(path).param("size", "20")));
+
+        assertThat(statements).isPositive().isLessThanOrEqualTo(queryBudget.budget("GET " + path));
+    }
+
+    @Test
+    void statementsOfTheAuthenticationAreCounted() throws Exception {
+        MockHttpServletRequestBuilder request = asAdmin(get("/genres"));
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        long statements = queryCount(request);
+
+        assertThat(statements).isEqualTo(statistics.getPrepareStatementCount());
+    }
+
+    private long queryCount(MockHttpServletRequestBuilder request) throws Exception {
+        String count =
+                mvc.perform(request)
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getHeader(QueryBudget.QUERY_COUNT);
+
+        return Long.parseLong(count);
+    }
+}